@@ -0,0 +1,50 @@
+package com.ssafy.nanumi.api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.ssafy.nanumi.common.ChatMessageDTO;
+import com.ssafy.nanumi.db.entity.ChatMessageEntity;
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 채팅 전송 payload 직렬화 비교.
+ * 이전 방식 (메시지마다 ObjectMapper 생성 -> String -> String 변환기에서 다시 byte[]) 과
+ * ChatService 의 공유 ObjectWriter 로 byte[] 한 번에 쓰는 방식.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ChatMessageSerializationBenchmark {
+    private static final ObjectWriter CHAT_MESSAGE_WRITER = new ObjectMapper().writerFor(ChatMessageEntity.class);
+
+    private ChatMessageEntity message;
+
+    @Setup
+    public void setUp() {
+        message = ChatMessageEntity.builder()
+                ._id(new ObjectId().toHexString())
+                .type(ChatMessageDTO.MessageType.TALK)
+                .roomId(12_345L)
+                .sender(42L)
+                .message("안녕하세요, 나눔 받으러 5분 뒤에 도착합니다!")
+                .sendTime("2023-05-17 오후 03:21 07:123")
+                .ts(1_684_304_467_123L)
+                .opponentID(7L)
+                .build();
+    }
+
+    @Benchmark
+    public byte[] objectMapperPerMessage() throws Exception {
+        String json = new ObjectMapper().writeValueAsString(message);
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] sharedObjectWriter() throws Exception {
+        return CHAT_MESSAGE_WRITER.writeValueAsBytes(message);
+    }
+}
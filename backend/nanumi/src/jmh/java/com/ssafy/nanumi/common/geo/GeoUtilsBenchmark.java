@@ -0,0 +1,61 @@
+package com.ssafy.nanumi.common.geo;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 위치 갱신마다 계산하는 거리 비교.
+ * haversine 과 GeoUtils.distance (가까운 거리는 equirectangular 근사) 를 약속 장소 근처 (1km 안) 좌표 쌍으로 계산한다.
+ * 좌표는 매번 다음 쌍을 써서 상수로 접히지 않게 한다.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GeoUtilsBenchmark {
+    private static final int PAIRS = 1024;
+    private static final double CENTER_LATITUDE = 37.5013;
+    private static final double CENTER_LONGITUDE = 127.0396;
+    private static final double SPREAD_DEGREES = 0.01; // 약 1km
+
+    private final double[] lat1 = new double[PAIRS];
+    private final double[] lon1 = new double[PAIRS];
+    private final double[] lat2 = new double[PAIRS];
+    private final double[] lon2 = new double[PAIRS];
+    private int index;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        for (int i = 0; i < PAIRS; i++) {
+            lat1[i] = CENTER_LATITUDE + (random.nextDouble() - 0.5) * SPREAD_DEGREES;
+            lon1[i] = CENTER_LONGITUDE + (random.nextDouble() - 0.5) * SPREAD_DEGREES;
+            lat2[i] = CENTER_LATITUDE + (random.nextDouble() - 0.5) * SPREAD_DEGREES;
+            lon2[i] = CENTER_LONGITUDE + (random.nextDouble() - 0.5) * SPREAD_DEGREES;
+        }
+    }
+
+    @Benchmark
+    public double haversine() {
+        int i = next();
+        return GeoUtils.haversine(lat1[i], lon1[i], lat2[i], lon2[i]);
+    }
+
+    @Benchmark
+    public double distance() {
+        int i = next();
+        return GeoUtils.distance(lat1[i], lon1[i], lat2[i], lon2[i]);
+    }
+
+    @Benchmark
+    public double equirectangular() {
+        int i = next();
+        return GeoUtils.equirectangular(lat1[i], lat2[i], lat2[i] - lat1[i], lon2[i] - lon1[i]);
+    }
+
+    private int next() {
+        index = (index + 1) & (PAIRS - 1);
+        return index;
+    }
+}
@@ -1,5 +1,6 @@
 package com.ssafy.nanumi.api.controller;
 
+import com.ssafy.nanumi.api.response.ChatHistoryResDTO;
 import com.ssafy.nanumi.api.service.ChatRoomService;
 import com.ssafy.nanumi.api.service.ChatService;
 import com.ssafy.nanumi.common.ChatMessageDTO;
@@ -50,6 +51,14 @@ public class ChatController {
         return new ResponseEntity<>(chatService.GetChatLogLimit20(roomSeq), HttpStatus.OK);
     }
 
+    /* 커서 기반 채팅 기록 - before: 이전 기록 스크롤, after: 재접속 시 마지막으로 본 메시지 이후만 */
+    @GetMapping("chat/history")
+    public ResponseEntity<ChatHistoryResDTO> chatHistory(@RequestParam long roomSeq,
+                                                         @RequestParam(value = "before", required = false) String before,
+                                                         @RequestParam(value = "after", required = false) String after,
+                                                         @RequestParam(value = "size", defaultValue = "20") int size) {
+        return new ResponseEntity<>(chatService.getChatHistory(roomSeq, before, after, size), HttpStatus.OK);
+    }
 
 //    @GetMapping("findmyroom")
 //    public ResponseEntity<List<ChatRoomInfoDTO>> findMyRoom(@RequestParam long user) {
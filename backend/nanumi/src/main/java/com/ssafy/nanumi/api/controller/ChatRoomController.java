@@ -1,6 +1,8 @@
 package com.ssafy.nanumi.api.controller;
 
 
+import com.ssafy.nanumi.api.response.ChatUnreadResDTO;
+import com.ssafy.nanumi.api.service.ChatReadService;
 import com.ssafy.nanumi.api.service.ChatRoomService;
 import com.ssafy.nanumi.common.ChatRoomInfoDTO;
 import com.ssafy.nanumi.common.CreateChatRoomDTO;
@@ -17,6 +19,7 @@ import java.util.List;
 @RequestMapping("chat")
 public class ChatRoomController {
     private final ChatRoomService chatRoomService;
+    private final ChatReadService chatReadService;
 
 
     @PostMapping("room")
@@ -34,4 +37,18 @@ public class ChatRoomController {
     public ResponseEntity<List<ChatRoomInfoDTO>> findMyRoom(@RequestParam long user) {
         return new ResponseEntity<>(chatRoomService.FindMyChatRooms(user), HttpStatus.OK);
     }
+
+    /* 읽음 처리 - ts 는 마지막으로 본 메시지 시각 (없으면 현재 시각), 최종 읽음 위치를 반환 */
+    @PutMapping("read")
+    public ResponseEntity<Long> readRoom(@RequestParam long user, @RequestParam long roomSeq,
+                                         @RequestParam(value = "ts", required = false) Long ts) {
+        long readTs = ts == null ? System.currentTimeMillis() : ts;
+        return new ResponseEntity<>(chatReadService.markRead(user, roomSeq, readTs), HttpStatus.OK);
+    }
+
+    /* 앱 배지용 - 모든 채팅방의 읽지 않은 수와 읽음 위치 */
+    @GetMapping("unread")
+    public ResponseEntity<List<ChatUnreadResDTO>> unread(@RequestParam long user) {
+        return new ResponseEntity<>(chatReadService.getUnreadSummary(user), HttpStatus.OK);
+    }
 }
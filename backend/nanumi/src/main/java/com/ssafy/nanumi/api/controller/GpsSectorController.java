@@ -1,56 +1,46 @@
 package com.ssafy.nanumi.api.controller;
 
+import com.ssafy.nanumi.api.service.LocationTrackingService;
+import com.ssafy.nanumi.api.service.LocationUpdatePipeline;
+import com.ssafy.nanumi.api.service.UserService;
 import com.ssafy.nanumi.common.LocationDTO;
-import com.ssafy.nanumi.api.service.PushNotificationService;
-import com.ssafy.nanumi.db.repository.UserInfoRepository;
+import com.ssafy.nanumi.common.geo.NearbyLocation;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.List;
 
 @RequiredArgsConstructor
 @RequestMapping("accounts")
 @Controller
 public class GpsSectorController {
-    // 상대방의 FCM 토큰을 가져오기 위해 ChatRoomRepository를 주입한다.
-    private final UserInfoRepository userInfoRepository;
-    private final PushNotificationService pushNotificationService;
+    private final LocationUpdatePipeline locationUpdatePipeline;
+    private final LocationTrackingService locationTrackingService;
+    private final UserService userService;
 
 
+    /* 위치 수신 - 이동량 판정/도착 확인은 LocationUpdatePipeline 에서 비동기로 처리 */
     @MessageMapping("/location")
-    public void handleLocation(LocationDTO locationDTO) {
-        if (isWithinTargetDistance(locationDTO.getLatitude(), locationDTO.getLongitude(), locationDTO.getTargetLatitude(), locationDTO.getTargetLongitude())) {
-            // 상대방에게 푸시 알림을 보내는 로직
-            long opponentId = locationDTO.getOpponentId(); // 사용자의 이메일로 상대방의 opponentId를 가져옵니다.
-            String fcmToken = userInfoRepository.getTokenByUserId(opponentId); // 상대방의 FCM 토큰을 가져오는 로직
-
-            System.out.println("opponentId : " + opponentId);
-            System.out.println("fcmToken : " + fcmToken);
-
-            pushNotificationService.sendPushNotification(fcmToken, "목표 지점 도착", "상대방이 목표 지점에 도착했습니다.");
-        }
+    public void handleLocation(@Header("simpSessionId") String sessionId, LocationDTO locationDTO) {
+        locationUpdatePipeline.submit(sessionId, locationDTO);
     }
 
-    private double calculateDistance(double lat1, double lon1, double lat2, double lon2) {
-        int EARTH_RADIUS = 6371; // 지구 반지름 (킬로미터)
-
-        double latDistance = Math.toRadians(lat2 - lat1);
-        double lonDistance = Math.toRadians(lon2 - lon1);
-        double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2)
-                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
-                * Math.sin(lonDistance / 2) * Math.sin(lonDistance / 2);
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-        double distance = EARTH_RADIUS * c * 1000; // 거리를 미터 단위로 변환
-
-        return distance;
-    }
-
-
-    public boolean isWithinTargetDistance(double userLatitude, double userLongitude, double targetLatitude, double targetLongitude) {
-        final int TARGET_DISTANCE = 100;
-        double distance = calculateDistance(userLatitude, userLongitude, targetLatitude, targetLongitude);
-
-        return distance <= TARGET_DISTANCE;
+    /* 약속 장소에서 radius 미터 안에 있는 같은 채팅방 사용자 (가까운 순) - 채팅방 참여자만 조회할 수 있다 */
+    @GetMapping("location/nearby")
+    public ResponseEntity<List<NearbyLocation>> nearby(@RequestHeader("Authorization") String accessToken,
+                                                       @RequestParam long chatRoomSeq,
+                                                       @RequestParam double latitude, @RequestParam double longitude,
+                                                       @RequestParam(value = "radius", defaultValue = "100") double radius) {
+        long userId = userService.userByAT(accessToken);
+        return new ResponseEntity<>(locationTrackingService.findNearby(userId, chatRoomSeq, latitude, longitude, radius), HttpStatus.OK);
     }
 }
 // TODO 알림 요청
@@ -3,6 +3,7 @@ package com.ssafy.nanumi.api.controller;
 import com.ssafy.nanumi.api.response.MatchSuccessDto;
 import com.ssafy.nanumi.api.response.ProductAllDTO;
 import com.ssafy.nanumi.api.response.ProductDetailDTO;
+import com.ssafy.nanumi.api.response.ProductFeedResDTO;
 import com.ssafy.nanumi.api.service.NanumService;
 import com.ssafy.nanumi.api.service.ProductService;
 import com.ssafy.nanumi.api.service.UserService;
@@ -65,6 +66,14 @@ public class ProductController {
         return responseService.getDataResponse(productService.findProductAll(userId, pageRequest), RESPONSE_SUCCESS);
     }
 
+    /* 상품 피드 조회 (커서 기반) */
+    @GetMapping("/feed/{user-id}")
+    public CustomDataResponse<ProductFeedResDTO> getProductFeed(@PathVariable("user-id") long userId,
+                                                             @RequestParam(value = "cursor", required = false) String cursor){
+        SearchPageReq searchPageReq = new SearchPageReq(0);
+        return responseService.getDataResponse(productService.findProductFeed(userId, cursor, searchPageReq.getPageSizeForProduct()), RESPONSE_SUCCESS);
+    }
+
     /* 상세 페이지 조회 */
     @GetMapping("detail/{product-id}")
     public CustomDataResponse<ProductDetailDTO> getProductOne(@PathVariable("product-id") long productId) {
@@ -0,0 +1,23 @@
+package com.ssafy.nanumi.api.response;
+
+import com.ssafy.nanumi.db.entity.ChatMessageEntity;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+public class ChatHistoryResDTO {
+    private final List<ChatMessageEntity> messages; // 오래된 순
+    private final String beforeCursor; // 이전 기록 요청 시 before 로 전달 (가장 오래된 메시지)
+    private final String afterCursor;  // 재접속 동기화 시 after 로 전달 (가장 최근 메시지, 저장 지연 구간의 메시지는 다시 받으므로 _id 로 거른다)
+    private final boolean hasMore;     // 요청 방향으로 메시지가 더 있는지
+
+    @Builder
+    public ChatHistoryResDTO(List<ChatMessageEntity> messages, String beforeCursor, String afterCursor, boolean hasMore) {
+        this.messages = messages;
+        this.beforeCursor = beforeCursor;
+        this.afterCursor = afterCursor;
+        this.hasMore = hasMore;
+    }
+}
@@ -0,0 +1,12 @@
+package com.ssafy.nanumi.api.response;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public class ChatUnreadResDTO {
+    private final long chatRoom;
+    private final long unreadCount;
+    private final long readTs; // 내가 마지막으로 읽은 메시지 시각 (epoch millis)
+}
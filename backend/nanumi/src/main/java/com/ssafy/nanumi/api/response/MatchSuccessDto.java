@@ -4,15 +4,22 @@ package com.ssafy.nanumi.api.response;
 import lombok.Builder;
 import lombok.Getter;
 
+/**
+ * 나눔 신청 결과.
+ * 신청은 쓰기 지연 큐에 넣고 바로 응답하므로 응답 시점에는 matches 행이 없다 - matchId 는 항상 null 이다.
+ * 대신 provisionalId (큐에 기록된 stream id) 를 돌려주고, 실제 신청 번호는 저장 후 신청 목록/채팅방 조회로 확인한다.
+ */
 @Getter
 public class MatchSuccessDto {
     private boolean result;
     private String resultMessage;
-    private Long matchId;
+    private Long matchId;         // 더 이상 채우지 않음 (호환용으로 필드만 유지)
+    private String provisionalId; // 저장 대기 중인 신청 번호
     @Builder
-    public MatchSuccessDto(boolean result, String resultMessage, Long matchId) {
+    public MatchSuccessDto(boolean result, String resultMessage, Long matchId, String provisionalId) {
         this.result = result;
         this.resultMessage = resultMessage;
         this.matchId = matchId;
+        this.provisionalId = provisionalId;
     }
 }
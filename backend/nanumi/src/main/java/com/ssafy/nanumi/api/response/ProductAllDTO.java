@@ -1,9 +1,12 @@
 package com.ssafy.nanumi.api.response;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.ssafy.nanumi.db.entity.Product;
 
 import lombok.Getter;
 
+import java.time.LocalDateTime;
+
 
 @Getter
 public class ProductAllDTO {
@@ -13,6 +16,8 @@ public class ProductAllDTO {
     private final String productImageUrl;
     private final Boolean isClosed;
     private final Boolean isMatched;
+    @JsonIgnore
+    private final LocalDateTime createDate; // 커서 생성용
 
     public ProductAllDTO(Product product){
         id = product.getId();
@@ -21,5 +26,17 @@ public class ProductAllDTO {
         productImageUrl = product.getProductImages().get(0).getImageUrl();
         isClosed = product.isClosed();
         isMatched = product.isMatched();
+        createDate = product.getCreateDate();
+    }
+
+    /* JPQL constructor expression 용 - 목록 조회를 한 번의 쿼리로 처리 */
+    public ProductAllDTO(long id, String name, String userProfileUrl, String productImageUrl, boolean isClosed, boolean isMatched, LocalDateTime createDate){
+        this.id = id;
+        this.name = name;
+        this.userProfileUrl = userProfileUrl;
+        this.productImageUrl = productImageUrl;
+        this.isClosed = isClosed;
+        this.isMatched = isMatched;
+        this.createDate = createDate;
     }
 }
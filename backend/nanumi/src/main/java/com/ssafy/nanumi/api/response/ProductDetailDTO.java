@@ -29,7 +29,7 @@ public class ProductDetailDTO {
         isMatched  = product.isMatched();
         categoryId = product.getCategory().getId();
         categoryName = product.getCategory().getName();
-        productImageUrls = product.getProductImages().stream().map(h->h.getImageUrl()).collect(Collectors.toList());
+        productImageUrls = product.getProductImages().stream().map(h-> h.getDetailUrl() != null ? h.getDetailUrl() : h.getImageUrl()).collect(Collectors.toList());
         userId = product.getUser().getId();
         userNickname = product.getUser().getNickname();
         userProfileUrl= product.getUser().getProfileUrl();
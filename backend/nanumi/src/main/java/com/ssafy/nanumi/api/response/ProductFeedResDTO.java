@@ -0,0 +1,20 @@
+package com.ssafy.nanumi.api.response;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+public class ProductFeedResDTO {
+    private final List<ProductAllDTO> content;
+    private final String nextCursor; // 다음 페이지 요청 시 그대로 전달, 마지막 페이지면 null
+    private final boolean hasNext;
+
+    @Builder
+    public ProductFeedResDTO(List<ProductAllDTO> content, String nextCursor, boolean hasNext) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+        this.hasNext = hasNext;
+    }
+}
@@ -2,6 +2,7 @@ package com.ssafy.nanumi.api.service;
 
 import com.ssafy.nanumi.api.request.BlockDTO;
 import com.ssafy.nanumi.api.response.BlacklistDTO;
+import com.ssafy.nanumi.common.cache.BlacklistCache;
 import com.ssafy.nanumi.config.response.exception.CustomException;
 import com.ssafy.nanumi.db.entity.Blacklist;
 import com.ssafy.nanumi.db.entity.User;
@@ -26,6 +27,7 @@ public class BlacklistService {
 
     private final BlacklistRepository blacklistRepository;
     private final UserRepository userRepository;
+    private final BlacklistCache blacklistCache;
 
     /* 사용자 차단 */
     public void blockUser(long blockerId, BlockDTO blockDTO) {
@@ -55,6 +57,8 @@ public class BlacklistService {
 
             blacklist.blockUser();
         }
+
+        blacklistCache.evictAfterCommit(blockerId, blockDTO.getTargetId());
     }
 
     /* 사용자 차단 해제 */
@@ -74,6 +78,8 @@ public class BlacklistService {
 
         // 사용자 차단 해제
         blacklist.blockCancel();
+
+        blacklistCache.evictAfterCommit(blockerId, blockDTO.getTargetId());
     }
 
     /* 차단 사용자 목록 조회 */
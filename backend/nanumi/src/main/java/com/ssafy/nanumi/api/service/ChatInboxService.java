@@ -0,0 +1,131 @@
+package com.ssafy.nanumi.api.service;
+
+import com.ssafy.nanumi.db.entity.ChatInboxEntity;
+import com.ssafy.nanumi.db.entity.ChatMessageEntity;
+import com.ssafy.nanumi.db.entity.ChatRoomEntity;
+import com.ssafy.nanumi.db.entity.User;
+import com.ssafy.nanumi.db.repository.ChatRoomRepository;
+import com.ssafy.nanumi.db.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * 채팅방 목록 read-model 관리.
+ * 채팅방 생성 시 참여자별 문서를 만들고, 메시지가 저장될 때 마지막 메시지를 갱신한다.
+ * 상대방 닉네임/프로필은 스냅샷으로 보관하고 사용자 정보가 바뀌면 함께 갱신한다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ChatInboxService {
+    private static final String MIGRATION_COLLECTION = "migrations";
+    private static final String BACKFILL_MARKER = "chat_inbox_backfill";
+
+    private final MongoTemplate mongoTemplate;
+    private final UserRepository userRepository;
+    private final ChatRoomRepository chatRoomRepository;
+
+    /* 채팅방 생성 - 두 참여자의 목록 문서 생성 */
+    public void createRoom(ChatRoomEntity chatRoom) {
+        long[] users = chatRoom.getUserList();
+        if (users == null || users.length < 2) return;
+
+        Map<Long, User> snapshots = new HashMap<>();
+        userRepository.findAllById(Arrays.asList(users[0], users[1])).forEach(user -> snapshots.put(user.getId(), user));
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ChatInboxEntity.class);
+        bulk.upsert(idQuery(users[0], chatRoom.getChatroomSeq()), roomUpdate(users[0], users[1], chatRoom, snapshots.get(users[1])));
+        bulk.upsert(idQuery(users[1], chatRoom.getChatroomSeq()), roomUpdate(users[1], users[0], chatRoom, snapshots.get(users[0])));
+        bulk.execute();
+    }
+
+    /* 저장된 메시지 반영 - 방마다 batch 의 마지막 메시지로 두 참여자 문서를 갱신 */
+    public void applyMessages(List<ChatMessageEntity> messages) {
+        Map<Long, ChatMessageEntity> lastByRoom = new HashMap<>();
+        for (ChatMessageEntity message : messages) {
+            lastByRoom.merge(message.getRoomId(), message, (a, b) -> a.getTs() >= b.getTs() ? a : b);
+        }
+        if (lastByRoom.isEmpty()) return;
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ChatInboxEntity.class);
+        for (ChatMessageEntity last : lastByRoom.values()) {
+            // 목록 문서가 없는 방은 (생성 이전 메시지 등) 갱신하지 않는다
+            Update update = new Update()
+                    .set("lastMessage", last.getMessage())
+                    .set("lastMessageTs", last.getTs());
+            bulk.updateMulti(new Query(Criteria.where("roomSeq").is(last.getRoomId())
+                    .and("lastMessageTs").lt(last.getTs())), update);
+        }
+        bulk.execute();
+    }
+
+    /* 사용자 정보 변경 시 상대방 목록의 스냅샷 갱신 */
+    public void updateOpponentSnapshot(long userId, String nickname, String profileUrl) {
+        mongoTemplate.updateMulti(new Query(Criteria.where("opponentId").is(userId)),
+                new Update().set("opponentNickname", nickname).set("opponentProfileImage", profileUrl),
+                ChatInboxEntity.class);
+    }
+
+    /*
+     * 기존 채팅방으로 목록을 채운다 - 방마다 upsert 하므로 중간에 중단되어도 다음 기동 때 이어서 채우고,
+     * 모두 끝나면 완료 표시를 남겨 이후 기동에서는 건너뛴다.
+     * 이전 스키마의 unreadCount 필드 (읽지 않은 수는 ChatReadService) 도 함께 지운다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        mongoTemplate.indexOps(ChatInboxEntity.class)
+                .ensureIndex(new Index().on("userId", Sort.Direction.ASC).on("lastMessageTs", Sort.Direction.DESC).named("idx_chat_inbox_user_ts"));
+        mongoTemplate.indexOps(ChatInboxEntity.class)
+                .ensureIndex(new Index().on("opponentId", Sort.Direction.ASC).named("idx_chat_inbox_opponent"));
+        mongoTemplate.indexOps(ChatInboxEntity.class)
+                .ensureIndex(new Index().on("roomSeq", Sort.Direction.ASC).named("idx_chat_inbox_room"));
+        if (mongoTemplate.exists(markerQuery(), MIGRATION_COLLECTION)) return;
+
+        int rooms = 0;
+        for (ChatRoomEntity chatRoom : chatRoomRepository.findAll()) {
+            createRoom(chatRoom);
+            mongoTemplate.updateMulti(new Query(Criteria.where("roomSeq").is(chatRoom.getChatroomSeq())),
+                    new Update().unset("unreadCount"), ChatInboxEntity.class);
+            List<ChatMessageEntity> last = mongoTemplate.find(new Query(Criteria.where("roomId").is(chatRoom.getChatroomSeq()))
+                    .with(Sort.by(Sort.Direction.DESC, "ts")).limit(1), ChatMessageEntity.class);
+            if (!last.isEmpty()) {
+                // 기동 후 저장된 더 최근 메시지는 덮어쓰지 않는다
+                applyMessages(last);
+            }
+            rooms++;
+        }
+        mongoTemplate.upsert(markerQuery(), new Update().set("completedAt", System.currentTimeMillis()), MIGRATION_COLLECTION);
+        log.info("chat inbox backfilled : {} rooms", rooms);
+    }
+
+    private Query markerQuery() {
+        return new Query(Criteria.where("_id").is(BACKFILL_MARKER));
+    }
+
+    private Query idQuery(long userId, long roomSeq) {
+        return new Query(Criteria.where("_id").is(ChatInboxEntity.idOf(userId, roomSeq)));
+    }
+
+    private Update roomUpdate(long userId, long opponentId, ChatRoomEntity chatRoom, User opponent) {
+        return new Update()
+                .set("userId", userId)
+                .set("roomSeq", chatRoom.getChatroomSeq())
+                .set("productId", chatRoom.getProductId())
+                .set("opponentId", opponentId)
+                .set("opponentNickname", opponent == null ? null : opponent.getNickname())
+                .set("opponentProfileImage", opponent == null ? null : opponent.getProfileUrl())
+                .setOnInsert("lastMessageTs", 0L);
+    }
+}
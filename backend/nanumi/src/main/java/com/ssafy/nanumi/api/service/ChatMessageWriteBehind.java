@@ -0,0 +1,252 @@
+package com.ssafy.nanumi.api.service;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.ssafy.nanumi.db.entity.ChatMessageEntity;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 채팅 메시지 쓰기 지연 저장.
+ * 메시지는 먼저 구독자에게 전송하고 큐에 넣은 뒤, 전용 스레드가 flush 주기마다 또는 batch 크기만큼 모이면
+ * bulk insert 한 번으로 저장한다. 큐가 가득 차면 호출한 스레드에서 바로 저장하고, 종료 시 남은 메시지를 모두 저장한다.
+ * 저장한 batch 는 채팅방 목록 read-model 에도 한 번의 bulk 로 반영한다.
+ * 저장이 실패하면 batch 를 버리지 않고 backoff 하며 다시 저장한다 (그동안 들어온 메시지는 큐에 쌓인다).
+ * 문서 자체가 거부되면 (검증 실패 등) 나머지는 저장하고 거부된 문서만 한 건씩 몇 번 더 시도한 뒤 로그를 남기고 버린다.
+ */
+@Slf4j
+@Component
+public class ChatMessageWriteBehind {
+    private static final int DUPLICATE_KEY = 11000;
+    private static final long RETRY_MIN_MILLIS = 100;
+    private static final long RETRY_MAX_MILLIS = 5_000;
+    private static final int SHUTDOWN_ATTEMPTS = 3;
+    private static final int REJECTED_ATTEMPTS = 3;
+
+    private final MongoTemplate mongoTemplate;
+    private final ChatInboxService chatInboxService;
+    private final BlockingQueue<ChatMessageEntity> queue;
+    // 종료 중 저장하지 못하고 writer 가 넘긴 메시지 - stop() 에서 저장
+    private final Queue<ChatMessageEntity> unsaved = new ConcurrentLinkedQueue<>();
+    private final int batchSize;
+    private final long flushDelayMillis;
+    private final Counter dropped;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public ChatMessageWriteBehind(MongoTemplate mongoTemplate,
+                                  ChatInboxService chatInboxService,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${nanumi.chat.write-behind.capacity:10000}") int capacity,
+                                  @Value("${nanumi.chat.write-behind.batch-size:200}") int batchSize,
+                                  @Value("${nanumi.chat.write-behind.flush-delay-ms:20}") long flushDelayMillis) {
+        this.mongoTemplate = mongoTemplate;
+        this.chatInboxService = chatInboxService;
+        this.queue = new LinkedBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.flushDelayMillis = flushDelayMillis;
+        Gauge.builder("nanumi.chat.write.queue", queue, BlockingQueue::size)
+                .description("저장 대기 중인 채팅 메시지 수")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("nanumi.chat.write.dropped")
+                .description("저장이 거부되어 버린 채팅 메시지 수")
+                .register(meterRegistry);
+    }
+
+    /*
+     * 전송된 메시지가 저장될 때까지 걸린다고 보는 시간 - flush 주기 + 최대 재시도 간격.
+     * 채팅 기록 동기화는 이보다 최근 메시지 뒤로는 커서를 넘기지 않는다 (ts 가 더 작은 메시지가 나중에 저장될 수 있음).
+     */
+    public long persistLagMillis() {
+        return flushDelayMillis + RETRY_MAX_MILLIS;
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        writer = new Thread(this::run, "chat-write-behind");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /* 저장 예약 - 큐가 가득 차면 바로 저장 (backpressure) */
+    public void enqueue(ChatMessageEntity message) {
+        if (!queue.offer(message)) {
+            mongoTemplate.insert(message);
+            chatInboxService.applyMessages(Collections.singletonList(message));
+        }
+    }
+
+    private void run() {
+        List<ChatMessageEntity> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                ChatMessageEntity first = queue.poll(flushDelayMillis, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                // flush 주기 동안 들어온 메시지를 batch 크기까지 모은다
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushDelayMillis);
+                while (batch.size() < batchSize) {
+                    if (queue.drainTo(batch, batchSize - batch.size()) > 0) continue;
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) break;
+                    ChatMessageEntity next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) break;
+                    batch.add(next);
+                }
+                flushWithRetry(batch);
+            } catch (InterruptedException e) {
+                // 종료 대기 시간 초과 - 남은 메시지는 stop() 에서 저장
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                // 저장하지 못한 batch 는 큐 (가득 찼을 수 있음) 대신 unsaved 로 넘긴다
+                if (!batch.isEmpty()) {
+                    unsaved.addAll(batch);
+                    batch.clear();
+                }
+            }
+        }
+    }
+
+    /*
+     * batch 전체가 실패하면 (연결 장애 등) batch 를 그대로 두고 backoff 후 다시 저장한다 - 종료 중이면 stop() 에 맡긴다.
+     * 거부된 문서만 남으면 한 건씩 다시 저장하고, REJECTED_ATTEMPTS 번 넘게 거부되면 버린다.
+     */
+    private void flushWithRetry(List<ChatMessageEntity> batch) throws InterruptedException {
+        long backoff = RETRY_MIN_MILLIS;
+        int rejectedAttempts = 0;
+        while (true) {
+            try {
+                if (flush(batch, rejectedAttempts > 0)) return;
+                if (++rejectedAttempts >= REJECTED_ATTEMPTS) {
+                    drop(batch);
+                    return;
+                }
+            } catch (Exception e) {
+                log.error("chat message batch insert failed, size={}", batch.size(), e);
+            }
+            if (!running) return;
+            Thread.sleep(backoff);
+            backoff = Math.min(backoff * 2, RETRY_MAX_MILLIS);
+        }
+    }
+
+    /* 저장된 메시지는 batch 에서 빼고 채팅방 목록에 반영한다 - 거부된 메시지만 batch 에 남기고, 모두 저장했으면 true */
+    private boolean flush(List<ChatMessageEntity> batch, boolean oneByOne) {
+        Set<Integer> rejected = new HashSet<>();
+        if (oneByOne) {
+            for (int i = 0; i < batch.size(); i++) {
+                if (!insert(Collections.singletonList(batch.get(i))).isEmpty()) {
+                    rejected.add(i);
+                }
+            }
+        } else {
+            rejected = insert(batch);
+        }
+
+        List<ChatMessageEntity> saved = new ArrayList<>(batch.size());
+        List<ChatMessageEntity> left = new ArrayList<>(rejected.size());
+        for (int i = 0; i < batch.size(); i++) {
+            (rejected.contains(i) ? left : saved).add(batch.get(i));
+        }
+        if (!saved.isEmpty()) {
+            chatInboxService.applyMessages(saved);
+        }
+        batch.clear();
+        batch.addAll(left);
+        return batch.isEmpty();
+    }
+
+    private void drop(List<ChatMessageEntity> batch) {
+        for (ChatMessageEntity message : batch) {
+            log.error("chat message dropped after {} rejected attempts, _id={}, roomId={}, sender={}, ts={}",
+                    REJECTED_ATTEMPTS, message.get_id(), message.getRoomId(), message.getSender(), message.getTs());
+        }
+        dropped.increment(batch.size());
+        batch.clear();
+    }
+
+    /*
+     * 재시도해도 중복 저장되지 않도록 _id 를 미리 정하고, 순서 없는 bulk insert 로 저장한다.
+     * 앞선 시도에서 이미 저장된 메시지는 duplicate key 로 실패하므로 성공으로 본다.
+     * 순서 없는 bulk 는 거부된 문서가 있어도 나머지를 저장하므로, 거부된 문서의 batch 안 위치만 돌려준다.
+     */
+    private Set<Integer> insert(List<ChatMessageEntity> batch) {
+        for (ChatMessageEntity message : batch) {
+            if (message.get_id() == null) {
+                message.set_id(new ObjectId().toHexString());
+            }
+        }
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ChatMessageEntity.class)
+                    .insert(batch)
+                    .execute();
+            return Collections.emptySet();
+        } catch (BulkOperationException e) {
+            Set<Integer> rejected = new HashSet<>();
+            for (BulkWriteError error : e.getErrors()) {
+                if (error.getCode() != DUPLICATE_KEY) {
+                    rejected.add(error.getIndex());
+                }
+            }
+            return rejected;
+        }
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        // writer 가 큐를 비울 때까지 기다린다
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+        if (writer.isAlive()) {
+            writer.interrupt();
+            writer.join(TimeUnit.SECONDS.toMillis(1));
+        }
+
+        List<ChatMessageEntity> rest = new ArrayList<>(unsaved);
+        unsaved.clear();
+        queue.drainTo(rest);
+        while (!rest.isEmpty()) {
+            List<ChatMessageEntity> batch = new ArrayList<>(rest.subList(0, Math.min(batchSize, rest.size())));
+            rest.subList(0, batch.size()).clear();
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    if (flush(batch, attempt > 1)) break;
+                    if (attempt >= REJECTED_ATTEMPTS) {
+                        drop(batch);
+                        break;
+                    }
+                } catch (Exception e) {
+                    log.error("chat message batch insert failed, size={}", batch.size(), e);
+                    if (attempt >= SHUTDOWN_ATTEMPTS) {
+                        log.error("chat messages not saved on shutdown, size={}", batch.size() + rest.size());
+                        return;
+                    }
+                }
+                Thread.sleep(RETRY_MIN_MILLIS << attempt);
+            }
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.ssafy.nanumi.api.service;
+
+import com.ssafy.nanumi.api.response.ChatUnreadResDTO;
+import com.ssafy.nanumi.common.ChatReadEventDTO;
+import com.ssafy.nanumi.common.cache.ChatRoomMembershipCache;
+import com.ssafy.nanumi.common.cache.ChatRoomMembershipCache.Membership;
+import com.ssafy.nanumi.config.response.exception.CustomException;
+import com.ssafy.nanumi.config.response.exception.CustomExceptionStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.BatchResult;
+import org.redisson.api.RBatch;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * 채팅방 읽지 않은 수 / 읽음 위치 관리.
+ * 사용자별 Redis hash 두 개 (roomSeq -> 읽지 않은 수, roomSeq -> 마지막으로 읽은 시각) 에 보관하고
+ * 메시지 전송 시 받는 사람의 수를 HINCRBY 로 올린 뒤 /sub/user/{id} 로 변경분만 보낸다.
+ * 방별 마지막 메시지 시각과 이벤트 순번도 같은 hash tag 로 두어 증가/읽음 처리를 각각 Lua script 한 번으로 처리한다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ChatReadService {
+    // 읽지 않은 수 증가 + 방의 마지막 메시지 시각 기록. 반환값은 {읽지 않은 수, 이벤트 순번}
+    private static final String MESSAGE_SCRIPT =
+            "local count = redis.call('HINCRBY', KEYS[1], ARGV[1], 1) " +
+            "local last = tonumber(redis.call('HGET', KEYS[2], ARGV[1]) or '0') " +
+            "if tonumber(ARGV[2]) > last then redis.call('HSET', KEYS[2], ARGV[1], ARGV[2]) end " +
+            "return {count, redis.call('INCR', KEYS[3])}";
+    // 읽음 위치는 뒤로 가지 않는다. 마지막 메시지까지 읽었을 때만 읽지 않은 수를 지운다
+    // (읽음 요청 전에 도착한 메시지의 수는 남긴다). 반환값은 {최종 읽음 위치, 읽지 않은 수, 이벤트 순번}
+    private static final String READ_SCRIPT =
+            "local cur = tonumber(redis.call('HGET', KEYS[2], ARGV[1]) or '0') " +
+            "local ts = tonumber(ARGV[2]) " +
+            "if ts > cur then redis.call('HSET', KEYS[2], ARGV[1], ARGV[2]) cur = ts end " +
+            "local last = tonumber(redis.call('HGET', KEYS[3], ARGV[1]) or '0') " +
+            "if cur >= last then redis.call('HDEL', KEYS[1], ARGV[1]) end " +
+            "local count = tonumber(redis.call('HGET', KEYS[1], ARGV[1]) or '0') " +
+            "return {cur, count, redis.call('INCR', KEYS[4])}";
+
+    private final RedissonClient redissonClient;
+    private final SimpMessageSendingOperations messageTemplate;
+    private final ChatRoomMembershipCache chatRoomMembershipCache;
+
+    /*
+     * 메시지 전송 - 받는 사람의 읽지 않은 수 증가 후 변경분 전송 (전송 경로를 막지 않도록 비동기).
+     * 비동기 완료 순서대로 도착하지 않을 수 있으므로 사용자별 순번을 함께 보내고, 클라이언트는 더 작은 순번을 버린다.
+     */
+    public void onMessage(long roomSeq, long receiverId, long ts) {
+        if (receiverId == 0L) return;
+        String key = unreadKey(receiverId);
+        redissonClient.getScript(StringCodec.INSTANCE)
+                .<List<Object>>evalAsync(key, RScript.Mode.READ_WRITE, MESSAGE_SCRIPT, RScript.ReturnType.MULTI,
+                        Arrays.asList(key, lastKey(receiverId), seqKey(receiverId)), String.valueOf(roomSeq), String.valueOf(ts))
+                .whenComplete((result, e) -> {
+                    if (e != null) {
+                        log.warn("unread increment failed : room={}, user={}", roomSeq, receiverId, e);
+                        return;
+                    }
+                    messageTemplate.convertAndSend("/sub/user/" + receiverId,
+                            ChatReadEventDTO.unread(roomSeq, toLong(result.get(0)), toLong(result.get(1))));
+                });
+    }
+
+    /* 읽음 처리 - 마지막 메시지까지 읽었으면 읽지 않은 수를 지우고 내 다른 기기와 상대방에게 알린다 */
+    public long markRead(long userId, long roomSeq, long readTs) {
+        Membership membership = chatRoomMembershipCache.get(roomSeq);
+        if (membership == null || !membership.contains(userId)) {
+            throw new CustomException(CustomExceptionStatus.NOT_FOUND_CHAT_ROOM);
+        }
+
+        String unreadKey = unreadKey(userId);
+        List<Object> result = redissonClient.getScript(StringCodec.INSTANCE).eval(unreadKey, RScript.Mode.READ_WRITE, READ_SCRIPT,
+                RScript.ReturnType.MULTI, Arrays.asList(unreadKey, readKey(userId), lastKey(userId), seqKey(userId)),
+                String.valueOf(roomSeq), String.valueOf(readTs));
+        long cursor = toLong(result.get(0));
+
+        messageTemplate.convertAndSend("/sub/user/" + userId, ChatReadEventDTO.unread(roomSeq, toLong(result.get(1)), toLong(result.get(2))));
+        messageTemplate.convertAndSend("/sub/user/" + membership.opponentOf(userId), ChatReadEventDTO.read(roomSeq, userId, cursor));
+        return cursor;
+    }
+
+    /* 방별 읽지 않은 수 (roomSeq -> count) - HGETALL 한 번 */
+    public Map<Long, Long> getUnreadCounts(long userId) {
+        return toLongMap(redissonClient.<String, String>getMap(unreadKey(userId), StringCodec.INSTANCE).readAllMap());
+    }
+
+    /* 앱 배지용 일괄 조회 - 두 hash 를 한 번의 batch 로 읽는다 */
+    public List<ChatUnreadResDTO> getUnreadSummary(long userId) {
+        RBatch batch = redissonClient.createBatch();
+        batch.<String, String>getMap(unreadKey(userId), StringCodec.INSTANCE).readAllMapAsync();
+        batch.<String, String>getMap(readKey(userId), StringCodec.INSTANCE).readAllMapAsync();
+        BatchResult<?> result = batch.execute();
+
+        @SuppressWarnings("unchecked")
+        Map<Long, Long> unread = toLongMap((Map<String, String>) result.getResponses().get(0));
+        @SuppressWarnings("unchecked")
+        Map<Long, Long> read = toLongMap((Map<String, String>) result.getResponses().get(1));
+
+        Set<Long> rooms = new TreeSet<>(unread.keySet());
+        rooms.addAll(read.keySet());
+        List<ChatUnreadResDTO> summary = new ArrayList<>(rooms.size());
+        for (Long roomSeq : rooms) {
+            summary.add(new ChatUnreadResDTO(roomSeq, unread.getOrDefault(roomSeq, 0L), read.getOrDefault(roomSeq, 0L)));
+        }
+        return summary;
+    }
+
+    private Map<Long, Long> toLongMap(Map<String, String> hash) {
+        Map<Long, Long> values = new HashMap<>(hash.size() * 2);
+        for (Map.Entry<String, String> entry : hash.entrySet()) {
+            values.put(Long.parseLong(entry.getKey()), Long.parseLong(entry.getValue()));
+        }
+        return values;
+    }
+
+    private long toLong(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : Long.parseLong(value.toString());
+    }
+
+    private String unreadKey(long userId) {
+        return "chat:{" + userId + "}:unread";
+    }
+
+    private String readKey(long userId) {
+        return "chat:{" + userId + "}:read";
+    }
+
+    // 방별 마지막 메시지 시각 - 읽음 처리가 그 이후 메시지의 수를 지우지 않도록
+    private String lastKey(long userId) {
+        return "chat:{" + userId + "}:last";
+    }
+
+    // UNREAD 이벤트 순번
+    private String seqKey(long userId) {
+        return "chat:{" + userId + "}:seq";
+    }
+}
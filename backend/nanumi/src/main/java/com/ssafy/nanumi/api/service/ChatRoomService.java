@@ -2,6 +2,9 @@ package com.ssafy.nanumi.api.service;
 
 import com.ssafy.nanumi.common.ChatRoomInfoDTO;
 import com.ssafy.nanumi.common.CreateChatRoomDTO;
+import com.ssafy.nanumi.common.cache.BlacklistCache;
+import com.ssafy.nanumi.common.cache.ChatRoomMembershipCache;
+import com.ssafy.nanumi.common.lock.DistributeLock;
 import com.ssafy.nanumi.config.response.exception.CustomException;
 import com.ssafy.nanumi.config.response.exception.CustomExceptionStatus;
 import com.ssafy.nanumi.db.entity.*;
@@ -14,8 +17,9 @@ import org.springframework.messaging.simp.SimpMessageSendingOperations;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.time.ZoneId;
 import java.util.*;
 
 @Service
@@ -25,15 +29,29 @@ public class ChatRoomService {
     private final SimpMessageSendingOperations messageTemplate;
     private final ChatRepository chatRepository;
     @Autowired
-    private UserRepository userRepository;
+    private ChatInboxRepository chatInboxRepository;
 
     @Autowired
     private MatchRepository matchRepository;
 
     @Autowired
-    BlacklistRepository blacklistRepository;
+    BlacklistCache blacklistCache;
+
+    @Autowired
+    ChatRoomMembershipCache chatRoomMembershipCache;
+
+    @Autowired
+    ChatInboxService chatInboxService;
+
+    @Autowired
+    ChatReadService chatReadService;
+
+    @Autowired
+    MeetupGeofence meetupGeofence;
     //TODO 채팅방 생성 메서드
+    // 같은 상품/상대방으로 동시에 요청하면 둘 다 중복 확인을 통과해 방이 두 개 생기므로 락으로 묶는다
     @Transactional
+    @DistributeLock(key = "'chatroom:' + #DTO.productId + ':' + #DTO.opponentId")
     public ResponseEntity<?> CreateChatRoom(CreateChatRoomDTO DTO) {
         long sendUser = DTO.getSendUser(); // 나 자신
         long receiveUser = DTO.getOpponentId(); // 상대방
@@ -62,6 +80,11 @@ public class ChatRoomService {
 
             chatRoomRepository.save(chatRoomEntity);
 
+            // 첫 메시지부터 DB 조회 없이 처리되도록 참여자 캐시를 채운다
+            chatRoomMembershipCache.warm(chatRoomEntity);
+            // 두 참여자의 채팅방 목록 문서 생성
+            chatInboxService.createRoom(chatRoomEntity);
+
             messageTemplate.convertAndSend("/sub/user/" + sendUser, new com.ssafy.nanumi.common.SubscribeChatRoomDTO("CHATROOM", receiveUser, chatRoomEntity.getChatroomSeq()));
             messageTemplate.convertAndSend("/sub/user/" + receiveUser, new com.ssafy.nanumi.common.SubscribeChatRoomDTO("CHATROOM", sendUser, chatRoomEntity.getChatroomSeq()));
 
@@ -73,64 +96,34 @@ public class ChatRoomService {
 
 
     // TODO 모든 채팅방 찾기 메소드
+    /* 채팅방 목록 read-model 한 번 조회 (userId, lastMessageTs 인덱스) - 차단 여부는 캐시, 읽지 않은 수는 Redis hash 에서 */
     public List<ChatRoomInfoDTO> FindMyChatRooms(long user) {
-        List<ChatRoomEntity> chatRoomEntities = chatRoomRepository.findAllByUserListContaining(user);
-        List<ChatRoomInfoDTO> chatRoomInfoDTOs = new ArrayList<>();
-
-        for (ChatRoomEntity chatRoomEntity : chatRoomEntities) {
-            ChatRoomInfoDTO chatRoomInfoDTO = new ChatRoomInfoDTO();
+        List<ChatInboxEntity> inbox = chatInboxRepository.findAllByUserIdOrderByLastMessageTsDesc(user);
+        Map<Long, Long> unreadCounts = chatReadService.getUnreadCounts(user);
+        List<ChatRoomInfoDTO> chatRoomInfoDTOs = new ArrayList<>(inbox.size());
 
-            long opponentId = Arrays.stream(chatRoomEntity.getUserList())
-                    .filter(id -> id != user)
-                    .findFirst()
-                    .orElse(0L);
+        for (ChatInboxEntity entry : inbox) {
+            // 탈퇴 등으로 상대방 정보가 없는 방은 제외
+            if (entry.getOpponentNickname() == null) continue;
 
-            // 차단 목록 true/ false 리턴
-//            List<Blacklist> blockedUsers = blacklistRepository.findByBlockerIdAndIsBlockedTrue(user);
-            List<Long> blacklists = new ArrayList<>();
-
-            List<Long> blockers = blacklistRepository.findBlockerId(user);
-            for (long blocker : blockers) {
-                blacklists.add(blocker);
-            }
-
-            List<Long> targets = blacklistRepository.findTargetId(user);
-            for (long target : targets) {
-                blacklists.add(target);
-            }
-
-            boolean isOpponentBlocked = blacklists.stream().anyMatch(blacklist -> blacklist == opponentId);
-            chatRoomInfoDTO.setBlocked(isOpponentBlocked);
-
-            // 상대방 정보를 UserRepository에서 가져오기 (MySQL)
-            User opponent = userRepository.findById(opponentId).orElse(null);
-            if (opponent != null) {
-                chatRoomInfoDTO.setOpponentNickname(opponent.getNickname());
-                chatRoomInfoDTO.setOpponentProfileImage(opponent.getProfileUrl());
-                chatRoomInfoDTO.setOpponentId(opponentId);
-            } else {
-                System.err.println("Opponent not found with ID: " + opponentId);
-                continue; // 다음 chatRoomEntity로 이동
-            }
-
-            // 마지막 메시지 정보 가져오기
-            List<ChatMessageEntity> lastMessages = chatRepository.findTop1ByRoomIdOrderBySendTimeDesc(chatRoomEntity.getChatroomSeq());
-            ChatMessageEntity lastMessage = lastMessages.isEmpty() ? null : lastMessages.get(0);
-            chatRoomInfoDTO.setChatRoomId(chatRoomEntity.getChatroomSeq());
-            chatRoomInfoDTO.setProductId(chatRoomEntity.getProductId());
-            if (lastMessage != null) {
-                chatRoomInfoDTO.setLastMessage(lastMessage.getMessage());
-                DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd a hh:mm ss:SSS");
-                chatRoomInfoDTO.setLastMessageTime(LocalDateTime.parse(lastMessage.getSendTime(), formatter));
+            ChatRoomInfoDTO chatRoomInfoDTO = new ChatRoomInfoDTO();
+            chatRoomInfoDTO.setChatRoomId(entry.getRoomSeq());
+            chatRoomInfoDTO.setProductId(entry.getProductId());
+            chatRoomInfoDTO.setOpponentId(entry.getOpponentId());
+            chatRoomInfoDTO.setOpponentNickname(entry.getOpponentNickname());
+            chatRoomInfoDTO.setOpponentProfileImage(entry.getOpponentProfileImage());
+            chatRoomInfoDTO.setBlocked(blacklistCache.isBlocked(user, entry.getOpponentId()));
+            chatRoomInfoDTO.setUnreadCount(unreadCounts.getOrDefault(entry.getRoomSeq(), 0L));
+            if (entry.getLastMessageTs() > 0) {
+                chatRoomInfoDTO.setLastMessage(entry.getLastMessage());
+                chatRoomInfoDTO.setLastMessageTime(LocalDateTime.ofInstant(Instant.ofEpochMilli(entry.getLastMessageTs()), ZoneId.systemDefault()));
             }
-
             chatRoomInfoDTOs.add(chatRoomInfoDTO);
         }
 
         return chatRoomInfoDTOs;
     }
 
-
     // TODO 채팅방 신고처리 메서드
     @Transactional
     public boolean reportByRoomSeq(Long seq) {
@@ -144,6 +137,9 @@ public class ChatRoomService {
 
         // 변경된 정보를 저장한다.
         chatRoomRepository.save(chatRoom);
+        chatRoomMembershipCache.evict(seq);
+        // 채팅방이 끝나면 약속도 끝난다 - 도착 판정 상태와 기록 삭제
+        meetupGeofence.remove(seq);
 
         // 채팅방 신고처리가 성공적으로 완료되었으므로 true를 반환한다.
         return true;
@@ -2,7 +2,13 @@ package com.ssafy.nanumi.api.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.ssafy.nanumi.api.response.ChatHistoryResDTO;
+import com.ssafy.nanumi.common.ChatHistoryCursor;
 import com.ssafy.nanumi.common.ChatMessageDTO;
+import com.ssafy.nanumi.common.cache.ChatRoomMembershipCache;
+import com.ssafy.nanumi.common.cache.ChatRoomMembershipCache.Membership;
+import com.ssafy.nanumi.common.cache.ProductFeedCache;
 import com.ssafy.nanumi.config.response.CustomResponse;
 import com.ssafy.nanumi.config.response.ResponseService;
 import com.ssafy.nanumi.config.response.exception.CustomException;
@@ -17,9 +23,18 @@ import com.ssafy.nanumi.db.repository.ChatRepository;
 import com.ssafy.nanumi.db.repository.ChatRoomRepository;
 import com.ssafy.nanumi.db.repository.ProductRepository;
 import com.ssafy.nanumi.db.repository.UserRepository;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.MimeTypeUtils;
 
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
@@ -30,6 +45,10 @@ import java.util.*;
 
 @Service
 public class ChatService {
+    private static final int MAX_HISTORY_SIZE = 100;
+    // 스레드 안전한 writer 를 공유한다 (메시지마다 ObjectMapper 를 만들지 않음)
+    private static final ObjectWriter CHAT_MESSAGE_WRITER = new ObjectMapper().writerFor(ChatMessageEntity.class);
+
     // 웹 소켓 메시지를 전송하는데 사용되는 인터페이스
     private final SimpMessageSendingOperations messageTemplate;
     private final ChatRepository chatRepository;
@@ -39,8 +58,13 @@ public class ChatService {
     private final UserInfoRepository userInfoRepository;
     private final MatchRepository matchRepository;
     private final ChatRoomRepository chatRoomRepository;
+    private final ProductFeedCache productFeedCache;
+    private final MongoTemplate mongoTemplate;
+    private final ChatMessageWriteBehind chatMessageWriteBehind;
+    private final ChatReadService chatReadService;
+    private final ChatRoomMembershipCache chatRoomMembershipCache;
 
-    public ChatService(SimpMessageSendingOperations messageTemplate, ChatRepository chatRepository, ProductRepository productRepository, ResponseService responseService, UserRepository userRepository, UserInfoRepository userInfoRepository, ChatRoomRepository chatRoomRepository, MatchRepository matchRepository) {
+    public ChatService(SimpMessageSendingOperations messageTemplate, ChatRepository chatRepository, ProductRepository productRepository, ResponseService responseService, UserRepository userRepository, UserInfoRepository userInfoRepository, ChatRoomRepository chatRoomRepository, MatchRepository matchRepository, ProductFeedCache productFeedCache, MongoTemplate mongoTemplate, ChatMessageWriteBehind chatMessageWriteBehind, ChatRoomMembershipCache chatRoomMembershipCache, ChatReadService chatReadService) {
         this.messageTemplate = messageTemplate;
         this.chatRepository = chatRepository;
         this.productRepository = productRepository;
@@ -49,71 +73,144 @@ public class ChatService {
         this.userInfoRepository = userInfoRepository;
         this.chatRoomRepository = chatRoomRepository;
         this.matchRepository = matchRepository;
+        this.productFeedCache = productFeedCache;
+        this.mongoTemplate = mongoTemplate;
+        this.chatMessageWriteBehind = chatMessageWriteBehind;
+        this.chatRoomMembershipCache = chatRoomMembershipCache;
+        this.chatReadService = chatReadService;
     }
 
 
 
     // TODO DTO 객체를 입력으로 받아서, 채팅 메시지를 저장하고 해당 채팅방에 전송한다.
-    @Transactional
     public void CreateChat(ChatMessageDTO DTO) {
         long user = DTO.getSender();
 
-        // 해당 사용자가 참여 중인 채팅방 목록을 가져옵니다.
-        List<ChatRoomEntity> chatRoomEntities = chatRoomRepository.findAllByUserListContaining(user);
-
-        // DTO의 roomId에 해당하는 채팅방을 찾습니다.
-        ChatRoomEntity chatRoomEntity = chatRoomEntities.stream()
-                .filter(chatRoom -> chatRoom.getChatroomSeq() == DTO.getRoomId()) // 'getRoomId()' 대신 'getChatroomSeq()'를 사용합니다.
-                .findFirst()
-                .orElseThrow(() -> new CustomException(CustomExceptionStatus.NOT_FOUND_CHAT_ROOM));
-
-        long opponentId = Arrays.stream(chatRoomEntity.getUserList())
-                .filter(id -> id != user)
-                .findFirst()
-                .orElse(0L);
-
-        // 상대방 정보를 UserRepository에서 가져오기 (MySQL)
-        User opponent = userRepository.findById(opponentId).orElse(null);
+        // 채팅방 참여자 캐시로 보낸 사용자 확인 (DB 조회 없음) - 신고로 비활성화된 방은 전송 불가
+        Membership membership = chatRoomMembershipCache.get(DTO.getRoomId());
+        if (membership == null || !membership.isActive() || !membership.contains(user)) {
+            throw new CustomException(CustomExceptionStatus.NOT_FOUND_CHAT_ROOM);
+        }
 
-        // sender의 프로필 URL을 가져옵니다.
-        User senderUser = userRepository.findById(DTO.getSender())
-                .orElseThrow(() -> new CustomException(CustomExceptionStatus.NOT_FOUND_USER));
-        String profileUrl = senderUser.getProfileUrl();
+        long opponentId = membership.opponentOf(user);
 
         // 날짜 형식 및 포멧터를 직접 설정
         String pattern = "yyyy-MM-dd a KK:mm ss:SSS";
         DateFormat df = new SimpleDateFormat(pattern);
 
-        // chatEntiy 객체를 데이터 베이스에 저장
+        // id 를 먼저 발급해서 전송 메시지와 저장 메시지가 같은 id 를 갖도록 한다 (커서 조회용)
+        Date now = new Date();
         ChatMessageEntity chatEntity = ChatMessageEntity.builder()
+                ._id(new ObjectId().toHexString())
                 .type(DTO.getType())
                 .roomId(DTO.getRoomId())
                 .sender(DTO.getSender())
                 .message(DTO.getMessage())
                 //.profileUrl(profileUrl)
-                .sendTime(df.format(new Date()))
-                .opponentID(opponent.getId())
+                .sendTime(df.format(now))
+                .ts(now.getTime())
+                .opponentID(opponentId)
                 .build();
-        chatRepository.save(chatEntity);
 
-        // 채팅방의 구독자들에게 채팅 메시지를 전송한다.
-        ObjectMapper objectMapper = new ObjectMapper();
-        String chatEntityJson = null;
+        // 채팅방의 구독자들에게 채팅 메시지를 먼저 전송한다.
+        // 한 번만 byte[] 로 직렬화해서 그대로 전송 (모든 구독 세션이 같은 payload 를 공유)
+        byte[] payload;
         try {
-            chatEntityJson = objectMapper.writeValueAsString(chatEntity);
+            payload = CHAT_MESSAGE_WRITER.writeValueAsBytes(chatEntity);
         } catch (JsonProcessingException e) {
             e.printStackTrace();
             return;
         }
 
-        messageTemplate.convertAndSend("/sub/chat/room/" + DTO.getRoomId(), chatEntityJson);
+        String destination = "/sub/chat/room/" + DTO.getRoomId();
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(destination);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        accessor.setLeaveMutable(true); // template 이 header 를 복사하지 않도록
+        messageTemplate.send(destination, MessageBuilder.createMessage(payload, accessor.getMessageHeaders()));
+
+        // 받는 사람의 읽지 않은 수 증가 + 배지 변경분 전송
+        chatReadService.onMessage(DTO.getRoomId(), opponentId, chatEntity.getTs());
+
+        // 저장은 모아서 insertMany
+        chatMessageWriteBehind.enqueue(chatEntity);
     }
 
     // TODO roomSeq를 입력으로 받아서 해당 채팅방의 최근 20개의 채팅 로그를 반환한다.
     @Transactional
     public List<ChatMessageEntity> GetChatLogLimit20(long roomSeq) {
         // 데이터베이스에서 최근 20개의 채팅 로그를 가져온다.
-        return chatRepository.findTop20ByRoomIdOrderBySendTimeDesc(roomSeq);
+        return chatRepository.findTop20ByRoomIdOrderByTsDesc(roomSeq);
+    }
+
+    /* 커서 기반 채팅 기록 - before 는 이전 기록, after 는 마지막으로 본 메시지 이후 (둘 다 없으면 최신) */
+    public ChatHistoryResDTO getChatHistory(long roomSeq, String before, String after, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_HISTORY_SIZE));
+        boolean forward = after != null && !after.isBlank();
+
+        Criteria criteria = Criteria.where("roomId").is(roomSeq);
+        if (forward) {
+            ChatHistoryCursor cursor = ChatHistoryCursor.decode(after);
+            criteria.orOperator(Criteria.where("ts").gt(cursor.getTs()),
+                    Criteria.where("ts").is(cursor.getTs()).and("_id").gt(cursor.getId()));
+        } else if (before != null && !before.isBlank()) {
+            ChatHistoryCursor cursor = ChatHistoryCursor.decode(before);
+            criteria.orOperator(Criteria.where("ts").lt(cursor.getTs()),
+                    Criteria.where("ts").is(cursor.getTs()).and("_id").lt(cursor.getId()));
+        }
+
+        // {roomId, ts} 인덱스 범위 조회, 다음 페이지 확인용으로 1건 더 조회
+        Sort.Direction direction = forward ? Sort.Direction.ASC : Sort.Direction.DESC;
+        Query query = new Query(criteria)
+                .with(Sort.by(direction, "ts").and(Sort.by(direction, "_id")))
+                .limit(limit + 1);
+        List<ChatMessageEntity> messages = new ArrayList<>(mongoTemplate.find(query, ChatMessageEntity.class));
+
+        boolean hasMore = messages.size() > limit;
+        if (hasMore) {
+            messages.remove(messages.size() - 1);
+        }
+        if (!forward) {
+            Collections.reverse(messages);
+        }
+
+        String beforeCursor = null;
+        String afterCursor = null;
+        if (!messages.isEmpty()) {
+            beforeCursor = toCursor(messages.get(0));
+            afterCursor = toCursor(messages.get(messages.size() - 1));
+        } else if (forward) {
+            // 새 메시지가 없으면 같은 커서로 다시 동기화
+            afterCursor = after;
+        }
+        if (afterCursor != null) {
+            afterCursor = persistedCursor(afterCursor);
+        }
+
+        return ChatHistoryResDTO.builder()
+                .messages(messages)
+                .beforeCursor(beforeCursor)
+                .afterCursor(afterCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    private String toCursor(ChatMessageEntity message) {
+        return new ChatHistoryCursor(message.getTs(), new ObjectId(message.get_id())).encode();
+    }
+
+    /*
+     * 메시지는 전송한 뒤 쓰기 지연 저장되므로 ts 가 더 작은 메시지가 나중에 저장될 수 있다.
+     * 저장이 끝났다고 볼 수 있는 시각 (persistLag 이전) 까지만 after 커서를 넘기고, 그 뒤 메시지는 다음 동기화에서 다시 내려준다.
+     * 클라이언트는 이미 받은 메시지를 _id 로 거른다.
+     */
+    private String persistedCursor(String cursor) {
+        long watermark = System.currentTimeMillis() - chatMessageWriteBehind.persistLagMillis();
+        if (ChatHistoryCursor.decode(cursor).getTs() < watermark) {
+            return cursor;
+        }
+        // watermark 시각의 첫 메시지 앞 (같은 ts 는 _id 로 비교하므로 가장 작은 id)
+        return new ChatHistoryCursor(watermark, new ObjectId(new byte[12])).encode();
     }
 
     @Transactional
@@ -121,6 +218,7 @@ public class ChatService {
         Product product = productRepository.findById(productId)
                 .orElseThrow(()-> new CustomException(CustomExceptionStatus.NOT_FOUND_PRODUCT));
         product.matchedEnd();
+        productFeedCache.evictAfterCommit(product.getAddress().getId());
 
         // 나눠준 사용자, 나눔받은 사용자의 give_count, given_count 증가
         // 나눠준 사람
@@ -1,15 +1,44 @@
 package com.ssafy.nanumi.api.service;
 
+import com.ssafy.nanumi.common.geo.GeoUtils;
+import com.ssafy.nanumi.common.geo.TrackedLocation;
 import com.ssafy.nanumi.db.entity.GpsUser;
 import com.ssafy.nanumi.db.repository.GpsRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.data.mongodb.core.index.GeoSpatialIndexType;
+import org.springframework.data.mongodb.core.index.GeospatialIndex;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
 @RequiredArgsConstructor
 @Service
 public class GpsService {
     private final GpsRepository gpsRepository;
-    
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${nanumi.location.document-ttl-minutes:10}")
+    private long documentTtlMinutes;
+
+    /* 2dsphere index 와 마지막 갱신 기준 TTL index */
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        mongoTemplate.indexOps(GpsUser.class)
+                .ensureIndex(new GeospatialIndex("location").typed(GeoSpatialIndexType.GEO_2DSPHERE).named("idx_gps_users_location"));
+        mongoTemplate.indexOps(GpsUser.class)
+                .ensureIndex(new Index().on("lastSeenAt", Sort.Direction.ASC).expire(documentTtlMinutes, TimeUnit.MINUTES).named("idx_gps_users_ttl"));
+    }
 
     // TODO 세션 아이디를 기반으로 사용자를 제거하는 메소드
     public void dropUser(String sessionId) {
@@ -19,39 +48,37 @@ public class GpsService {
 
     // TODO 대상과 상대방의 위치를 계산하는 메소드
     public double calculateDistance(double targetLat, double targetLon, double otherLat, double otherLon) {
-        final int R = 6371; // 지구의 반지름 (km 단위)
-
-        // 위도와 경도를 라디안 단위로 변환
-        double latDistance = Math.toRadians(otherLat - targetLat);
-        double lonDistance = Math.toRadians(otherLon - targetLon);
-
-        // 거리 계산을 위한 중간 변수
-        double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2)
-                + Math.cos(Math.toRadians(targetLat)) * Math.cos(Math.toRadians(otherLat))
-                * Math.sin(lonDistance / 2) * Math.sin(lonDistance / 2);
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-
-        return R * c; // 거리 반환 (km 단위)
+        return GeoUtils.distance(targetLat, targetLon, otherLat, otherLon) / 1000; // 거리 반환 (km 단위)
     }
 
     // TODO 사용자가 위치를 변환할 때 사용하는 메서드
+    /* 조회 없이 upsert 한 번 */
     public void changeUserSector(Double beforeLatitude, Double beforeLongitude, Double nowLatitude, Double nowLongitude, String sessionId) {
-        GpsUser gpsUser = gpsRepository.findBySessionId(sessionId);
-
-        if (gpsUser == null) {
-            gpsUser = new GpsUser();
-            gpsUser.setSessionId(sessionId);
-            gpsUser.setBeforeLatitude(beforeLatitude);
-            gpsUser.setBeforeLongitude(beforeLongitude);
-            gpsUser.setNowLatitude(nowLatitude);
-            gpsUser.setNowLongitude(nowLongitude);
-            gpsRepository.save(gpsUser);
-        } else {
-            gpsUser.setBeforeLatitude(beforeLatitude);
-            gpsUser.setBeforeLongitude(beforeLongitude);
-            gpsUser.setNowLatitude(nowLatitude);
-            gpsUser.setNowLongitude(nowLongitude);
-            gpsRepository.save(gpsUser);
+        Update update = new Update()
+                .set("beforeLatitude", beforeLatitude)
+                .set("beforeLongitude", beforeLongitude)
+                .set("nowLatitude", nowLatitude)
+                .set("nowLongitude", nowLongitude)
+                .set("location", new GeoJsonPoint(nowLongitude, nowLatitude))
+                .set("updatedAt", System.currentTimeMillis())
+                .set("lastSeenAt", new Date());
+        mongoTemplate.upsert(new Query(Criteria.where("_id").is(sessionId)), update, GpsUser.class);
+    }
+
+    /* 실시간 위치 저장 (2dsphere) - 이전 위치는 문서의 현재 위치를 그대로 옮긴다 */
+    public void saveLocation(TrackedLocation location, TrackedLocation previous) {
+        Update update = new Update()
+                .set("userId", location.getUserId())
+                .set("chatRoomSeq", location.getChatRoomSeq())
+                .set("nowLatitude", location.getLatitude())
+                .set("nowLongitude", location.getLongitude())
+                .set("location", new GeoJsonPoint(location.getLongitude(), location.getLatitude()))
+                .set("updatedAt", location.getUpdatedAt())
+                .set("lastSeenAt", new Date(location.getUpdatedAt()));
+        if (previous != null) {
+            update.set("beforeLatitude", previous.getLatitude())
+                    .set("beforeLongitude", previous.getLongitude());
         }
+        mongoTemplate.upsert(new Query(Criteria.where("_id").is(location.getSessionId())), update, GpsUser.class);
     }
-}
\ No newline at end of file
+}
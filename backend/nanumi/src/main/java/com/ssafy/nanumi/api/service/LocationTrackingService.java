@@ -0,0 +1,90 @@
+package com.ssafy.nanumi.api.service;
+
+import com.ssafy.nanumi.common.cache.ChatRoomMembershipCache;
+import com.ssafy.nanumi.common.cache.ChatRoomMembershipCache.Membership;
+import com.ssafy.nanumi.common.geo.LocationGrid;
+import com.ssafy.nanumi.common.geo.NearbyLocation;
+import com.ssafy.nanumi.common.geo.TrackedLocation;
+import com.ssafy.nanumi.config.response.exception.CustomException;
+import com.ssafy.nanumi.config.response.exception.CustomExceptionStatus;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * 약속 장소 실시간 위치 추적.
+ * 위치는 메모리 geohash grid 에 두고 조회도 grid 에서 처리한다.
+ * nanumi.location.persist=true 이면 gps_users 에도 upsert 해서 (2dsphere index) 서버 재시작/외부 조회에 쓸 수 있다.
+ */
+@Slf4j
+@Service
+public class LocationTrackingService {
+    private final LocationGrid locationGrid;
+    private final GpsService gpsService;
+    private final ChatRoomMembershipCache chatRoomMembershipCache;
+    private final boolean persist;
+
+    public LocationTrackingService(LocationGrid locationGrid, GpsService gpsService, ChatRoomMembershipCache chatRoomMembershipCache,
+                                   MeterRegistry meterRegistry, @Value("${nanumi.location.persist:false}") boolean persist) {
+        this.locationGrid = locationGrid;
+        this.gpsService = gpsService;
+        this.chatRoomMembershipCache = chatRoomMembershipCache;
+        this.persist = persist;
+        Gauge.builder("nanumi.location.tracked", locationGrid, LocationGrid::size)
+                .description("위치를 추적 중인 세션 수")
+                .register(meterRegistry);
+    }
+
+    /* 위치 갱신 - 이전 위치 반환 */
+    public TrackedLocation update(String sessionId, long userId, long chatRoomSeq, double latitude, double longitude) {
+        TrackedLocation location = new TrackedLocation(sessionId, userId, chatRoomSeq, latitude, longitude, System.currentTimeMillis());
+        TrackedLocation previous = locationGrid.update(location);
+        if (persist) {
+            try {
+                gpsService.saveLocation(location, previous);
+            } catch (Exception e) {
+                log.warn("location persist failed : {}", sessionId, e);
+            }
+        }
+        return previous;
+    }
+
+    /* 세션 종료 - 메모리 위치와 저장된 문서 삭제 */
+    public void remove(String sessionId) {
+        locationGrid.remove(sessionId);
+        if (persist) {
+            try {
+                gpsService.dropUser(sessionId);
+            } catch (Exception e) {
+                log.warn("location drop failed : {}", sessionId, e);
+            }
+        }
+    }
+
+    /* 갱신이 끊긴 위치 정리 (활동 중인 세션은 제외) - 정리한 세션 id */
+    public List<String> removeStale(long olderThan, Predicate<String> activeSession) {
+        List<String> stale = locationGrid.all().stream()
+                .filter(location -> location.getUpdatedAt() < olderThan && !activeSession.test(location.getSessionId()))
+                .map(TrackedLocation::getSessionId)
+                .collect(Collectors.toList());
+        stale.forEach(this::remove);
+        return stale;
+    }
+
+    /* 약속 장소 반경 안의 같은 채팅방 참여자 - 요청한 사용자가 채팅방 참여자여야 한다 */
+    public List<NearbyLocation> findNearby(long userId, long chatRoomSeq, double latitude, double longitude, double meters) {
+        Membership membership = chatRoomMembershipCache.get(chatRoomSeq);
+        if (membership == null || !membership.contains(userId)) {
+            throw new CustomException(CustomExceptionStatus.NOT_FOUND_CHAT_ROOM);
+        }
+        return locationGrid.findWithin(latitude, longitude, meters).stream()
+                .filter(location -> location.getChatRoomSeq() == chatRoomSeq)
+                .collect(Collectors.toList());
+    }
+}
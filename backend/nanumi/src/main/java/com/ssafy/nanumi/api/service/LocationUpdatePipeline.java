@@ -0,0 +1,173 @@
+package com.ssafy.nanumi.api.service;
+
+import com.ssafy.nanumi.common.LocationDTO;
+import com.ssafy.nanumi.common.cache.ChatRoomMembershipCache;
+import com.ssafy.nanumi.common.cache.ChatRoomMembershipCache.Membership;
+import com.ssafy.nanumi.common.geo.GeoUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * /pub/location 위치 갱신 처리 단계.
+ * 세션마다 처리 대기 중인 위치는 하나만 두고 그 사이에 들어온 위치는 최신 것으로 덮어쓴다 (coalesce).
+ * 처리할 때는 마지막으로 처리한 위치에서 거의 움직이지 않았으면 버린다. 기준 거리는 도착 판정 경계까지 남은 거리로
+ * 정해서 (경계에서 멀면 크게, 가까우면 작게) 버린 위치로는 판정이 바뀔 수 없게 하고, 도착 판정은 MeetupGeofence 에 맡긴다.
+ */
+@Slf4j
+@Component
+public class LocationUpdatePipeline {
+    private final ThreadPoolTaskExecutor locationExecutor;
+    private final LocationTrackingService locationTrackingService;
+    private final MeetupArrivalService meetupArrivalService;
+    private final MeetupGeofence meetupGeofence;
+    private final ChatRoomMembershipCache chatRoomMembershipCache;
+
+    private final double minMoveMeters;
+    private final double maxMoveMeters;
+    private final long keepAliveMillis;
+
+    private final Map<String, Frame> pending = new ConcurrentHashMap<>();
+    private final Map<String, SessionState> states = new ConcurrentHashMap<>();
+
+    private final Counter processed;
+    private final Counter dropped;
+    private final Counter coalesced;
+
+    public LocationUpdatePipeline(@Qualifier("locationExecutor") ThreadPoolTaskExecutor locationExecutor,
+                                  LocationTrackingService locationTrackingService,
+                                  MeetupArrivalService meetupArrivalService,
+                                  MeetupGeofence meetupGeofence,
+                                  ChatRoomMembershipCache chatRoomMembershipCache,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${nanumi.location.min-move-meters:5}") double minMoveMeters,
+                                  @Value("${nanumi.location.max-move-meters:50}") double maxMoveMeters,
+                                  @Value("${nanumi.location.keep-alive-ms:30000}") long keepAliveMillis) {
+        this.locationExecutor = locationExecutor;
+        this.locationTrackingService = locationTrackingService;
+        this.meetupArrivalService = meetupArrivalService;
+        this.meetupGeofence = meetupGeofence;
+        this.chatRoomMembershipCache = chatRoomMembershipCache;
+        this.minMoveMeters = minMoveMeters;
+        this.maxMoveMeters = maxMoveMeters;
+        this.keepAliveMillis = keepAliveMillis;
+        this.processed = frameCounter(meterRegistry, "processed");
+        this.dropped = frameCounter(meterRegistry, "dropped");
+        this.coalesced = frameCounter(meterRegistry, "coalesced");
+    }
+
+    /* 위치 수신 - 대기 중인 위치가 없을 때만 처리 작업을 등록한다 */
+    public void submit(String sessionId, LocationDTO location) {
+        if (pending.put(sessionId, new Frame(location, System.nanoTime())) == null) {
+            locationExecutor.execute(() -> drain(sessionId));
+        } else {
+            coalesced.increment();
+        }
+    }
+
+    /* 세션 종료 */
+    public void remove(String sessionId) {
+        pending.remove(sessionId);
+        states.remove(sessionId);
+    }
+
+    private void drain(String sessionId) {
+        Frame frame = pending.remove(sessionId);
+        if (frame == null) return;
+        try {
+            process(sessionId, frame);
+        } catch (Exception e) {
+            log.warn("location update failed : {}", sessionId, e);
+        }
+    }
+
+    private void process(String sessionId, Frame frame) {
+        LocationDTO location = frame.location;
+        // 보낸 사람은 채팅방에서 상대방이 아닌 참여자
+        Membership membership = chatRoomMembershipCache.get(location.getChatRoomSeq());
+        long userId = membership == null ? 0L : membership.opponentOf(location.getOpponentId());
+
+        SessionState state = states.computeIfAbsent(sessionId, id -> new SessionState());
+        boolean arrived;
+        // grid/도착 판정 반영까지 잠금 안에서 - 늦게 처리된 이전 위치가 최신 위치를 덮어쓰지 않도록 (세션별 잠금이라 경합은 없다)
+        synchronized (state) {
+            // 먼저 받은 위치가 늦게 처리되는 경우
+            if (frame.receivedAt <= state.receivedAt) {
+                coalesced.increment();
+                return;
+            }
+            state.receivedAt = frame.receivedAt;
+
+            long now = System.currentTimeMillis();
+            boolean sameTarget = state.initialized
+                    && state.targetLatitude == location.getTargetLatitude()
+                    && state.targetLongitude == location.getTargetLongitude();
+            // 도착 확정을 기다리는 동안에는 제자리 위치도 처리해야 확정된다
+            if (sameTarget && now - state.processedAt < keepAliveMillis && !meetupGeofence.isConfirming(location.getChatRoomSeq(), userId)) {
+                double moved = GeoUtils.distance(state.latitude, state.longitude, location.getLatitude(), location.getLongitude());
+                // 판정 경계까지 남은 거리보다 적게 움직였으면 판정이 바뀔 수 없다 - 최소 이동 거리는 경계가 그보다 멀 때만 적용한다
+                double boundary = meetupGeofence.distanceToBoundary(state.targetDistance);
+                double threshold = boundary <= minMoveMeters ? boundary : Math.max(minMoveMeters, Math.min(maxMoveMeters, boundary));
+                if (moved < threshold) {
+                    dropped.increment();
+                    return;
+                }
+            }
+
+            double targetDistance = GeoUtils.distance(location.getLatitude(), location.getLongitude(), location.getTargetLatitude(), location.getTargetLongitude());
+
+            state.initialized = true;
+            state.latitude = location.getLatitude();
+            state.longitude = location.getLongitude();
+            state.targetLatitude = location.getTargetLatitude();
+            state.targetLongitude = location.getTargetLongitude();
+            state.targetDistance = targetDistance;
+            state.processedAt = now;
+
+            locationTrackingService.update(sessionId, userId, location.getChatRoomSeq(), location.getLatitude(), location.getLongitude());
+            processed.increment();
+            arrived = userId != 0L && meetupGeofence.update(location.getChatRoomSeq(), userId,
+                    location.getTargetLatitude(), location.getTargetLongitude(), targetDistance, now);
+        }
+
+        if (arrived) {
+            meetupArrivalService.notifyArrival(location.getOpponentId());
+        }
+    }
+
+    private static Counter frameCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("nanumi.location.frames")
+                .description("위치 갱신 처리 결과")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static class Frame {
+        private final LocationDTO location;
+        private final long receivedAt; // nanoTime
+
+        private Frame(LocationDTO location, long receivedAt) {
+            this.location = location;
+            this.receivedAt = receivedAt;
+        }
+    }
+
+    /* 세션별 마지막으로 처리한 위치 */
+    private static class SessionState {
+        private boolean initialized;
+        private long receivedAt = Long.MIN_VALUE;
+        private double latitude;
+        private double longitude;
+        private double targetLatitude;
+        private double targetLongitude;
+        private double targetDistance;
+        private long processedAt;
+    }
+}
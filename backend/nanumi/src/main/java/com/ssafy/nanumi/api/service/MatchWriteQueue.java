@@ -0,0 +1,235 @@
+package com.ssafy.nanumi.api.service;
+
+import com.ssafy.nanumi.common.cache.ProductFeedCache;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.PendingEntry;
+import org.redisson.api.RStream;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.StreamMessageId;
+import org.redisson.api.stream.StreamAddArgs;
+import org.redisson.api.stream.StreamReadGroupArgs;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.annotation.PostConstruct;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 나눔 신청(Match) 쓰기 지연 큐.
+ * 선착순을 통과한 신청은 Redis stream 에 먼저 기록하고 바로 응답한다.
+ * 워커가 consumer group 으로 모아 읽어서 여러 건을 한 번의 multi-row insert 로 저장하고,
+ * (product_id, receiver_id) unique 제약 + on duplicate key update 로 재전달되어도 한 번만 저장된다.
+ * (insert ignore 는 중복 외의 오류 - FK 위반, 잘린 값 등 - 까지 경고로 바꿔 삼키므로 쓰지 않는다)
+ * 처리 중 서버가 죽으면 일정 시간 이상 ack 되지 않은 메시지를 다른 서버가 가져가서 다시 저장한다.
+ * batch insert 가 실패하면 한 건씩 다시 저장해서 실패한 신청만 pending 에 남기고,
+ * 정해진 횟수 이상 전달되어도 저장되지 않는 신청은 dead-letter stream 으로 옮긴 뒤 ack 한다.
+ */
+@Slf4j
+@Component
+public class MatchWriteQueue {
+    private static final String STREAM_KEY = "nanum:matches";
+    private static final String DEAD_LETTER_KEY = "nanum:matches:dead";
+    private static final String GROUP = "match-writer";
+    private static final long CLAIM_IDLE_MILLIS = 30_000;
+
+    private static final String PRODUCT_ID = "productId";
+    private static final String USER_ID = "userId";
+    private static final String ADDRESS_ID = "addressId";
+    private static final String CLOSE = "close";
+    private static final String CREATE_DATE = "createDate";
+    private static final String SOURCE_ID = "sourceId";
+
+    private final RedissonClient redissonClient;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ProductFeedCache productFeedCache;
+    private final String consumerName = UUID.randomUUID().toString();
+
+    @Value("${nanumi.match-queue.batch-size:200}")
+    private int batchSize;
+
+    @Value("${nanumi.match-queue.max-deliveries:10}")
+    private int maxDeliveries;
+
+    private RStream<String, String> stream;
+    private RStream<String, String> deadLetters;
+
+    public MatchWriteQueue(RedissonClient redissonClient, JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, ProductFeedCache productFeedCache) {
+        this.redissonClient = redissonClient;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.productFeedCache = productFeedCache;
+    }
+
+    @PostConstruct
+    void init() {
+        stream = redissonClient.getStream(STREAM_KEY, StringCodec.INSTANCE);
+        deadLetters = redissonClient.getStream(DEAD_LETTER_KEY, StringCodec.INSTANCE);
+        try {
+            stream.createGroup(GROUP, StreamMessageId.ALL);
+        } catch (Exception e) {
+            // BUSYGROUP - 이미 생성됨
+            log.debug("match stream group exists : {}", e.getMessage());
+        }
+    }
+
+    /* 신청 기록 - 반환된 stream id 를 임시 신청 번호로 사용한다 */
+    public String enqueue(long productId, long userId, long addressId, boolean close) {
+        Map<String, String> entry = new HashMap<>();
+        entry.put(PRODUCT_ID, String.valueOf(productId));
+        entry.put(USER_ID, String.valueOf(userId));
+        entry.put(ADDRESS_ID, String.valueOf(addressId));
+        entry.put(CLOSE, String.valueOf(close));
+        entry.put(CREATE_DATE, LocalDateTime.now().toString());
+        return stream.add(StreamAddArgs.entries(entry)).toString();
+    }
+
+    @Scheduled(fixedDelayString = "${nanumi.match-queue.flush-delay-ms:200}")
+    public void flush() {
+        try {
+            claimAbandoned();
+        } catch (Exception e) {
+            // 회수 실패가 새 신청 저장을 막지 않도록 따로 처리한다
+            log.error("match write-behind claim failed", e);
+        }
+        try {
+            Map<StreamMessageId, Map<String, String>> messages;
+            do {
+                messages = stream.readGroup(GROUP, consumerName, StreamReadGroupArgs.neverDelivered().count(batchSize));
+                if (messages != null && !messages.isEmpty()) {
+                    write(messages);
+                }
+            } while (messages != null && messages.size() >= batchSize);
+        } catch (Exception e) {
+            // ack 하지 않은 메시지는 pending 에 남아서 다시 처리된다
+            log.error("match write-behind flush failed", e);
+        }
+    }
+
+    /* 다른 서버가 읽고 ack 하지 못한 메시지 (또는 저장에 실패한 메시지) 회수 - pending 전체를 batchSize 씩 넘겨 본다 */
+    private void claimAbandoned() {
+        StreamMessageId start = StreamMessageId.MIN;
+        List<PendingEntry> pending;
+        do {
+            pending = stream.listPending(GROUP, start, StreamMessageId.MAX, batchSize);
+            if (pending.isEmpty()) return;
+
+            List<StreamMessageId> retry = new ArrayList<>();
+            List<StreamMessageId> dead = new ArrayList<>();
+            for (PendingEntry entry : pending) {
+                if (entry.getIdleTime() < CLAIM_IDLE_MILLIS) continue;
+                (entry.getLastTimeDelivered() >= maxDeliveries ? dead : retry).add(entry.getId());
+            }
+            if (!dead.isEmpty()) {
+                deadLetter(claim(dead));
+            }
+            if (!retry.isEmpty()) {
+                Map<StreamMessageId, Map<String, String>> claimed = claim(retry);
+                if (!claimed.isEmpty()) {
+                    write(claimed);
+                }
+            }
+
+            StreamMessageId last = pending.get(pending.size() - 1).getId();
+            start = new StreamMessageId(last.getId0(), last.getId1() + 1);
+        } while (pending.size() >= batchSize);
+    }
+
+    private Map<StreamMessageId, Map<String, String>> claim(List<StreamMessageId> ids) {
+        // 같은 메시지를 동시에 회수하려는 다른 서버와는 idle 시간 조건으로 한 쪽만 가져간다
+        return stream.claim(GROUP, consumerName, CLAIM_IDLE_MILLIS, TimeUnit.MILLISECONDS, ids.toArray(new StreamMessageId[0]));
+    }
+
+    /* 계속 저장에 실패하는 신청은 원래 id 와 함께 dead-letter stream 에 남기고 본 stream 에서 뺀다 */
+    private void deadLetter(Map<StreamMessageId, Map<String, String>> messages) {
+        if (messages.isEmpty()) return;
+        for (Map.Entry<StreamMessageId, Map<String, String>> message : messages.entrySet()) {
+            if (message.getValue().isEmpty()) continue;
+            Map<String, String> entry = new HashMap<>(message.getValue());
+            entry.put(SOURCE_ID, message.getKey().toString());
+            deadLetters.add(StreamAddArgs.entries(entry));
+            log.error("match dead-lettered after {} deliveries : id={}, entry={}", maxDeliveries, message.getKey(), message.getValue());
+        }
+        ack(messages.keySet());
+    }
+
+    private void write(Map<StreamMessageId, Map<String, String>> messages) {
+        try {
+            insert(messages.values());
+        } catch (Exception e) {
+            // 한 건 때문에 batch 전체가 막히지 않도록 한 건씩 다시 저장한다
+            log.warn("match batch insert failed, retrying one by one : {}", e.getMessage());
+            writeEach(messages);
+            return;
+        }
+        ack(messages.keySet());
+    }
+
+    /* 저장된 신청만 ack 하고, 실패한 신청은 pending 에 남겨 회수/dead-letter 대상이 되게 한다 */
+    private void writeEach(Map<StreamMessageId, Map<String, String>> messages) {
+        List<StreamMessageId> written = new ArrayList<>();
+        for (Map.Entry<StreamMessageId, Map<String, String>> message : messages.entrySet()) {
+            try {
+                insert(Collections.singletonList(message.getValue()));
+                written.add(message.getKey());
+            } catch (Exception e) {
+                log.error("match insert failed : id={}, entry={}", message.getKey(), message.getValue(), e);
+            }
+        }
+        if (!written.isEmpty()) {
+            ack(written);
+        }
+    }
+
+    private void insert(Collection<Map<String, String>> messages) {
+        List<Map<String, String>> entries = new ArrayList<>(messages);
+
+        StringBuilder sql = new StringBuilder("insert into matches (is_matching, product_id, receiver_id, create_date, update_date) values ");
+        List<Object> args = new ArrayList<>(entries.size() * 5);
+        Set<Long> closedProductIds = new HashSet<>();
+        Set<Long> addressIds = new HashSet<>();
+        for (int i = 0; i < entries.size(); i++) {
+            Map<String, String> entry = entries.get(i);
+            Timestamp createDate = Timestamp.valueOf(LocalDateTime.parse(entry.get(CREATE_DATE)));
+            sql.append(i == 0 ? "(?, ?, ?, ?, ?)" : ", (?, ?, ?, ?, ?)");
+            args.add(false);
+            args.add(Long.parseLong(entry.get(PRODUCT_ID)));
+            args.add(Long.parseLong(entry.get(USER_ID)));
+            args.add(createDate);
+            args.add(createDate);
+            if (Boolean.parseBoolean(entry.get(CLOSE))) {
+                closedProductIds.add(Long.parseLong(entry.get(PRODUCT_ID)));
+                addressIds.add(Long.parseLong(entry.get(ADDRESS_ID)));
+            }
+        }
+
+        // 이미 저장된 신청이면 아무것도 바꾸지 않는다
+        sql.append(" on duplicate key update id = id");
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update(sql.toString(), args.toArray());
+            if (!closedProductIds.isEmpty()) {
+                String in = closedProductIds.stream().map(id -> "?").collect(Collectors.joining(", "));
+                jdbcTemplate.update("update products set is_closed = 1 where id in (" + in + ")", closedProductIds.toArray());
+            }
+        });
+
+        for (Long addressId : addressIds) {
+            productFeedCache.evictAfterCommit(addressId);
+        }
+    }
+
+    private void ack(Collection<StreamMessageId> messageIds) {
+        StreamMessageId[] ids = messageIds.toArray(new StreamMessageId[0]);
+        stream.ack(GROUP, ids);
+        stream.remove(ids);
+    }
+}
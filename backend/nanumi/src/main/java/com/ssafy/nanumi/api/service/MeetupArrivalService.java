@@ -0,0 +1,41 @@
+package com.ssafy.nanumi.api.service;
+
+import com.ssafy.nanumi.db.repository.UserInfoRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+/* 약속 장소 도착 알림 - 상대방에게 FCM 푸시 (토큰 조회와 전송은 별도 스레드에서) */
+@Slf4j
+@Service
+public class MeetupArrivalService {
+    // 상대방의 FCM 토큰을 가져오기 위해 UserInfoRepository를 주입한다.
+    private final UserInfoRepository userInfoRepository;
+    private final PushNotificationService pushNotificationService;
+    private final ThreadPoolTaskExecutor arrivalPushExecutor;
+
+    public MeetupArrivalService(UserInfoRepository userInfoRepository, PushNotificationService pushNotificationService,
+                                @Qualifier("arrivalPushExecutor") ThreadPoolTaskExecutor arrivalPushExecutor) {
+        this.userInfoRepository = userInfoRepository;
+        this.pushNotificationService = pushNotificationService;
+        this.arrivalPushExecutor = arrivalPushExecutor;
+    }
+
+    public void notifyArrival(long opponentId) {
+        try {
+            arrivalPushExecutor.execute(() -> send(opponentId));
+        } catch (Exception e) {
+            log.warn("arrival push rejected : {}", opponentId, e);
+        }
+    }
+
+    private void send(long opponentId) {
+        String fcmToken = userInfoRepository.getTokenByUserId(opponentId); // 상대방의 FCM 토큰을 가져오는 로직
+        if (fcmToken == null) {
+            log.debug("arrival push skipped, no fcm token : {}", opponentId);
+            return;
+        }
+        pushNotificationService.sendPushNotification(fcmToken, "목표 지점 도착", "상대방이 목표 지점에 도착했습니다.");
+    }
+}
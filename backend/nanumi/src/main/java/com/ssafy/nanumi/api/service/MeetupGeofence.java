@@ -0,0 +1,152 @@
+package com.ssafy.nanumi.api.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RMap;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 약속 장소 도착 판정 (chatRoomSeq 별, 참여자별 상태).
+ * 들어갈 때는 enterRadius, 나갈 때는 exitRadius 를 기준으로 해서 경계 근처의 GPS 흔들림으로 들락날락하지 않게 하고 (hysteresis),
+ * 안쪽 위치가 debounceFrames 번 이상, dwellMillis 이상 이어져야 도착으로 확정한다 (튀는 위치 한 번, 지나가기만 한 경우 제외).
+ * 약속은 채팅방과 약속 장소 좌표로 구분한다 - 같은 채팅방에서 장소가 바뀌면 새 약속으로 보고 참여자 상태를 새로 시작한다.
+ * 도착은 약속마다 한 번만 - 서버가 여러 대이거나 재접속해도 채팅방별 Redis hash (필드: 약속 장소:userId) 로 한 번만 알리고,
+ * 채팅방이 끝나면 (remove) hash 를 지운다. TTL 은 끝나지 않은 채팅방의 hash 를 정리하는 용도다.
+ */
+@Slf4j
+@Component
+public class MeetupGeofence {
+    private static final String ARRIVED_KEY_PREFIX = "meetup:arrived:";
+
+    private final RedissonClient redissonClient;
+    private final double enterRadius;
+    private final double exitRadius;
+    private final int debounceFrames;
+    private final long dwellMillis;
+    private final long arrivedTtlMillis;
+    private final long idleMillis;
+
+    // chatRoomSeq -> (userId -> 상태)
+    private final Map<Long, Map<Long, Participant>> meetups = new ConcurrentHashMap<>();
+
+    public MeetupGeofence(RedissonClient redissonClient,
+                          @Value("${nanumi.location.arrival-radius:100}") double enterRadius,
+                          @Value("${nanumi.location.exit-radius:130}") double exitRadius,
+                          @Value("${nanumi.location.debounce-frames:2}") int debounceFrames,
+                          @Value("${nanumi.location.dwell-ms:2000}") long dwellMillis,
+                          @Value("${nanumi.location.arrived-ttl-hours:24}") long arrivedTtlHours,
+                          @Value("${nanumi.location.geofence-idle-minutes:30}") long idleMinutes) {
+        this.redissonClient = redissonClient;
+        this.enterRadius = enterRadius;
+        this.exitRadius = Math.max(enterRadius, exitRadius);
+        this.debounceFrames = Math.max(1, debounceFrames);
+        this.dwellMillis = dwellMillis;
+        this.arrivedTtlMillis = TimeUnit.HOURS.toMillis(arrivedTtlHours);
+        this.idleMillis = TimeUnit.MINUTES.toMillis(idleMinutes);
+    }
+
+    /* 위치 반영 - 이번 위치로 도착이 확정되면 true (약속마다 한 번) */
+    public boolean update(long chatRoomSeq, long userId, double targetLatitude, double targetLongitude, double targetDistance, long now) {
+        String target = targetOf(targetLatitude, targetLongitude);
+        Participant participant = meetups.computeIfAbsent(chatRoomSeq, seq -> new ConcurrentHashMap<>())
+                .computeIfAbsent(userId, id -> new Participant());
+        synchronized (participant) {
+            if (!target.equals(participant.target)) {
+                // 약속 장소가 바뀌면 새 약속
+                participant.target = target;
+                participant.inside = false;
+                participant.arrived = false;
+            }
+            participant.lastSeen = now;
+            if (!participant.inside) {
+                if (targetDistance > enterRadius) return false;
+                participant.inside = true;
+                participant.insideSince = now;
+                participant.insideFrames = 1;
+            } else {
+                if (targetDistance > exitRadius) {
+                    participant.inside = false;
+                    return false;
+                }
+                participant.insideFrames++;
+            }
+
+            if (participant.arrived || participant.insideFrames < debounceFrames || now - participant.insideSince < dwellMillis) {
+                return false;
+            }
+            participant.arrived = true;
+        }
+        return claimArrival(chatRoomSeq, target, userId);
+    }
+
+    /* 도착 확정을 기다리는 중 - 이 동안은 위치를 버리지 않아야 확정할 수 있다 */
+    public boolean isConfirming(long chatRoomSeq, long userId) {
+        Map<Long, Participant> participants = meetups.get(chatRoomSeq);
+        Participant participant = participants == null ? null : participants.get(userId);
+        if (participant == null) return false;
+        synchronized (participant) {
+            return participant.inside && !participant.arrived;
+        }
+    }
+
+    /* 가장 가까운 판정 경계까지의 거리 - 이보다 적게 움직이면 상태가 바뀔 수 없다 */
+    public double distanceToBoundary(double targetDistance) {
+        return Math.min(Math.abs(targetDistance - enterRadius), Math.abs(targetDistance - exitRadius));
+    }
+
+    /* 약속 종료 (채팅방 종료) - 상태와 도착 기록 삭제 */
+    public void remove(long chatRoomSeq) {
+        meetups.remove(chatRoomSeq);
+        try {
+            redissonClient.getMap(arrivedKey(chatRoomSeq), StringCodec.INSTANCE).delete();
+        } catch (Exception e) {
+            log.warn("arrival record delete failed : room={}", chatRoomSeq, e);
+        }
+    }
+
+    /* 오래 위치가 오지 않은 참여자 정리 */
+    @Scheduled(fixedDelayString = "${nanumi.location.geofence-sweep-ms:60000}")
+    public void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleMillis;
+        meetups.values().forEach(participants -> participants.values().removeIf(participant -> participant.lastSeen < cutoff));
+        meetups.values().removeIf(Map::isEmpty);
+    }
+
+    private boolean claimArrival(long chatRoomSeq, String target, long userId) {
+        try {
+            RMap<String, String> arrived = redissonClient.getMap(arrivedKey(chatRoomSeq), StringCodec.INSTANCE);
+            if (!arrived.fastPutIfAbsent(target + ":" + userId, "1")) return false;
+            arrived.expire(arrivedTtlMillis, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (Exception e) {
+            // Redis 장애 시 이 서버 기준 한 번만 알린다
+            log.warn("arrival claim failed : room={}, user={}", chatRoomSeq, userId, e);
+            return true;
+        }
+    }
+
+    private String arrivedKey(long chatRoomSeq) {
+        return ARRIVED_KEY_PREFIX + chatRoomSeq;
+    }
+
+    // 좌표를 약 1cm (1e-7 도) 단위로 맞춰서 같은 장소는 같은 약속으로 본다
+    private String targetOf(double latitude, double longitude) {
+        return Math.round(latitude * 1e7) + "," + Math.round(longitude * 1e7);
+    }
+
+    private static class Participant {
+        private String target; // 약속 장소
+        private boolean inside;
+        private boolean arrived;
+        private long insideSince;
+        private int insideFrames;
+        private volatile long lastSeen;
+    }
+}
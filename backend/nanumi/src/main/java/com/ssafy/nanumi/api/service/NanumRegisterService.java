@@ -1,14 +1,18 @@
 package com.ssafy.nanumi.api.service;
 
-import com.ssafy.nanumi.common.lock.DistributeLock;
+import com.ssafy.nanumi.common.admission.AdmissionResult;
+import com.ssafy.nanumi.common.admission.NanumAdmission;
+import com.ssafy.nanumi.common.cache.ProductFeedCache;
 import com.ssafy.nanumi.api.response.MatchSuccessDto;
-import com.ssafy.nanumi.db.entity.Match;
+import com.ssafy.nanumi.config.response.exception.CustomException;
+import com.ssafy.nanumi.config.response.exception.CustomExceptionStatus;
 import com.ssafy.nanumi.db.entity.Product;
 import com.ssafy.nanumi.db.entity.User;
 import com.ssafy.nanumi.db.repository.MatchRepository;
 import com.ssafy.nanumi.db.repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalTime;
 
@@ -17,11 +21,15 @@ import java.time.LocalTime;
 public class NanumRegisterService {
     private final MatchRepository matchRepository;
     private final ProductRepository productRepository;
+    private final ProductFeedCache productFeedCache;
+    private final NanumAdmission nanumAdmission;
+    private final MatchWriteQueue matchWriteQueue;
 
-    @DistributeLock(key = "#key")
-    public MatchSuccessDto register(final String key, Long productId, User user) {
+    /* 선착순 판정은 Redis 에서 한 번에 처리하고, 통과한 신청은 쓰기 지연 큐에 넣고 바로 응답한다 (상품 단위 락 없음) */
+    @Transactional
+    public MatchSuccessDto register(Long productId, User user) {
         Product product = productRepository.findById(productId)
-                .orElseThrow();
+                .orElseThrow(() -> new CustomException(CustomExceptionStatus.NOT_FOUND_PRODUCT));
 
         // 서버시간 확인.
         LocalTime currentTime = LocalTime.now();
@@ -34,41 +42,44 @@ public class NanumRegisterService {
 //                    .build();
 //        }
 
-        boolean isDuplicate = matchRepository.existsByProductIdAndUserId(productId, user.getId());
-        if (isDuplicate) {
+        AdmissionResult admission = nanumAdmission.admit(productId, user.getId(),
+                () -> matchRepository.findUserIdsByProductId(productId));
+
+        if (admission == AdmissionResult.DUPLICATE) {
             return MatchSuccessDto.builder()
                     .result(false)
                     .resultMessage("중복된 요청 입니다.")
                     .matchId(null)
                     .build();
         }
-        else {
-            int CountMatches = product.getMatches().size();
-            if (CountMatches < 3) {
-                Match match = Match.builder()
-                        .isMatching(false)
-                        .product(product)
-                        .user(user)
-                        .build();
-                Match newMatch = matchRepository.save(match);
-                if (CountMatches == 2) {
-                    product.setClosed(true);
-                }
-                return MatchSuccessDto.builder()
-                        .result(true)
-                        .resultMessage("신청 되었습니다.")
-                        .matchId(newMatch.getId())
-                        .build();
-            } else {
+        if (admission == AdmissionResult.FULL) {
+            if (!product.isClosed()) {
                 product.setClosed(true);
-                return MatchSuccessDto.builder()
-                        .result(false)
-                        .resultMessage("인원이 다 찼습니다.")
-                        .matchId(null)
-                        .build();
+                productFeedCache.evictAfterCommit(product.getAddress().getId());
             }
+            return MatchSuccessDto.builder()
+                    .result(false)
+                    .resultMessage("인원이 다 찼습니다.")
+                    .matchId(null)
+                    .build();
+        }
+
+        // 신청 저장은 쓰기 지연 큐에서 모아서 처리
+        boolean close = admission == AdmissionResult.ADMITTED_LAST;
+        String provisionalId;
+        try {
+            provisionalId = matchWriteQueue.enqueue(productId, user.getId(), product.getAddress().getId(), close);
+        } catch (RuntimeException e) {
+            // 큐에 기록하지 못하면 자리 반환
+            nanumAdmission.release(productId, user.getId());
+            throw e;
         }
+        return MatchSuccessDto.builder()
+                .result(true)
+                .resultMessage("신청 되었습니다.")
+                .matchId(null)
+                .provisionalId(provisionalId)
+                .build();
     }
 
 }
-
@@ -9,10 +9,8 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class NanumService {
     private final NanumRegisterService nanumRegisterService;
-    private static final String NANUM_KEY_PREFIX = "NANUM_";
     public MatchSuccessDto registerNanum(Long productId, User user)  {
-        String key = NANUM_KEY_PREFIX + productId.toString();
-        return nanumRegisterService.register(key, productId, user);
+        return nanumRegisterService.register(productId, user);
     }
 
 }
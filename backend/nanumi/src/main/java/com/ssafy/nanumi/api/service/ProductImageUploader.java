@@ -0,0 +1,146 @@
+package com.ssafy.nanumi.api.service;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.ssafy.nanumi.common.image.EncodedImage;
+import com.ssafy.nanumi.common.image.ImageVariant;
+import com.ssafy.nanumi.common.image.ImageVariantProcessor;
+import com.ssafy.nanumi.config.response.exception.CustomException;
+import com.ssafy.nanumi.config.response.exception.CustomExceptionStatus;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * 상품 이미지 S3 업로드 단계.
+ * 파일은 한 번만 읽고, 원본과 상세/썸네일 변환본 생성/업로드는 전용 스레드풀에서 이미지별로 병렬 처리한다.
+ * DB 트랜잭션 밖에서 호출해 네트워크 I/O 동안 커넥션을 잡지 않도록 한다.
+ */
+@Slf4j
+@Component
+public class ProductImageUploader {
+    private final AmazonS3 amazonS3;
+    private final ThreadPoolTaskExecutor imageUploadExecutor;
+    private final ImageVariantProcessor imageVariantProcessor;
+
+    @Value("${cloud.aws.s3.bucket}")
+    private String bucket;
+
+    public ProductImageUploader(AmazonS3 amazonS3, @Qualifier("imageUploadExecutor") ThreadPoolTaskExecutor imageUploadExecutor, ImageVariantProcessor imageVariantProcessor) {
+        this.amazonS3 = amazonS3;
+        this.imageUploadExecutor = imageUploadExecutor;
+        this.imageVariantProcessor = imageVariantProcessor;
+    }
+
+    /* 모든 이미지를 병렬 업로드하고 요청 순서대로 결과를 반환한다. 하나라도 실패하면 올라간 이미지는 지운다. */
+    public List<UploadedImage> uploadAll(MultipartFile[] images) throws IOException {
+        List<CompletableFuture<UploadedImage>> futures = new ArrayList<>(images.length);
+        for (MultipartFile file : images) {
+            // 요청 스레드에서 한 번만 읽는다 (multipart 임시 파일은 요청이 끝나면 정리됨)
+            byte[] bytes = file.getBytes();
+            String originalFilename = file.getOriginalFilename();
+            String contentType = file.getContentType();
+            futures.add(CompletableFuture.supplyAsync(() -> upload(bytes, originalFilename, contentType), imageUploadExecutor));
+        }
+
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException e) {
+            List<UploadedImage> succeeded = new ArrayList<>();
+            for (CompletableFuture<UploadedImage> future : futures) {
+                if (!future.isCompletedExceptionally()) {
+                    succeeded.add(future.join());
+                }
+            }
+            deleteAll(succeeded);
+            log.error("product image upload failed", e.getCause());
+            throw new CustomException(CustomExceptionStatus.IMAGE_UPLOAD_FAILED);
+        }
+
+        List<UploadedImage> uploaded = new ArrayList<>(futures.size());
+        for (CompletableFuture<UploadedImage> future : futures) {
+            uploaded.add(future.join());
+        }
+        return uploaded;
+    }
+
+    /* 보상 처리 - DB 저장 실패 시 업로드한 이미지를 삭제 */
+    public void deleteAll(List<UploadedImage> images) {
+        for (UploadedImage image : images) {
+            deleteKeys(image.getKeys());
+        }
+    }
+
+    private UploadedImage upload(byte[] bytes, String originalFilename, String contentType) {
+        String baseName = UUID.randomUUID().toString();
+        List<String> keys = new ArrayList<>(ImageVariant.values().length + 1);
+        try {
+            String originalKey = baseName + "-" + originalFilename;
+            String url = put(originalKey, bytes, contentType, keys);
+
+            // 한 번 디코딩해서 상세/썸네일 변환본 생성 - 변환 실패 시 원본만 저장
+            Map<ImageVariant, EncodedImage> variants;
+            try {
+                variants = imageVariantProcessor.process(bytes);
+            } catch (IOException e) {
+                log.warn("image variant processing failed, keeping original only: {}", originalFilename, e);
+                variants = new EnumMap<>(ImageVariant.class);
+            }
+            Map<ImageVariant, String> variantUrls = new EnumMap<>(ImageVariant.class);
+            for (Map.Entry<ImageVariant, EncodedImage> variant : variants.entrySet()) {
+                EncodedImage encoded = variant.getValue();
+                String key = baseName + "-" + variant.getKey().getSuffix() + "." + encoded.getExtension();
+                variantUrls.put(variant.getKey(), put(key, encoded.getBytes(), encoded.getContentType(), keys));
+            }
+            return new UploadedImage(keys, url, variantUrls.get(ImageVariant.DETAIL), variantUrls.get(ImageVariant.THUMBNAIL));
+        } catch (IOException | RuntimeException e) {
+            deleteKeys(keys);
+            throw new CompletionException(e);
+        }
+    }
+
+    private String put(String key, byte[] bytes, String contentType, List<String> keys) {
+        ObjectMetadata objMeta = new ObjectMetadata();
+        objMeta.setContentLength(bytes.length);
+        if (contentType != null) {
+            objMeta.setContentType(contentType);
+        }
+        amazonS3.putObject(bucket, key, new ByteArrayInputStream(bytes), objMeta);
+        keys.add(key);
+        return amazonS3.getUrl(bucket, key).toString();
+    }
+
+    private void deleteKeys(List<String> keys) {
+        for (String key : keys) {
+            try {
+                amazonS3.deleteObject(bucket, key);
+            } catch (Exception e) {
+                log.warn("failed to delete orphan image {}", key, e);
+            }
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class UploadedImage {
+        private final List<String> keys; // 원본 + 변환본 S3 key
+        private final String url;
+        private final String detailUrl;
+        private final String thumbnailUrl;
+    }
+}
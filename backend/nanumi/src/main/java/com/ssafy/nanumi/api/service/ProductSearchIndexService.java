@@ -0,0 +1,129 @@
+package com.ssafy.nanumi.api.service;
+
+import com.ssafy.nanumi.api.response.ProductAllDTO;
+import com.ssafy.nanumi.common.search.NgramTokenizer;
+import com.ssafy.nanumi.db.entity.BackfillState;
+import com.ssafy.nanumi.db.entity.Product;
+import com.ssafy.nanumi.db.repository.BackfillStateRepository;
+import com.ssafy.nanumi.db.repository.ProductRepository;
+import com.ssafy.nanumi.db.repository.ProductSearchTokenRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 상품 검색 n-gram 역색인 관리.
+ * 상품 등록/수정/삭제 시 토큰을 갱신하고, 검색은 토큰 인덱스로 후보를 찾아 관련도 순으로 정렬한다.
+ */
+@Slf4j
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class ProductSearchIndexService {
+    private static final int NAME_WEIGHT = 2;
+    private static final int CONTENT_WEIGHT = 1;
+    private static final int BACKFILL_PAGE_SIZE = 500;
+    private static final String BACKFILL_NAME = "product_search_tokens";
+
+    private final ProductSearchTokenRepository productSearchTokenRepository;
+    private final ProductRepository productRepository;
+    private final BackfillStateRepository backfillStateRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    /* 상품 토큰 색인 (기존 토큰은 교체) */
+    public void index(Product product) {
+        remove(product.getId());
+
+        Map<String, Integer> weights = new HashMap<>();
+        for (String token : NgramTokenizer.tokenize(product.getName())) {
+            weights.merge(token, NAME_WEIGHT, Integer::sum);
+        }
+        for (String token : NgramTokenizer.tokenize(product.getContent())) {
+            weights.merge(token, CONTENT_WEIGHT, Integer::sum);
+        }
+
+        List<Object[]> rows = weights.entrySet().stream()
+                .map(e -> new Object[]{product.getId(), e.getKey(), e.getValue()})
+                .collect(Collectors.toList());
+        jdbcTemplate.batchUpdate("insert into product_search_tokens (product_id, token, weight) values (?, ?, ?)", rows);
+    }
+
+    /* 상품 토큰 삭제 */
+    public void remove(long productId) {
+        jdbcTemplate.update("delete from product_search_tokens where product_id = ?", productId);
+    }
+
+    /* 토큰 인덱스 검색 - 모든 토큰을 포함하는 상품만, 가중치 합 > 최신순 */
+    @Transactional(readOnly = true)
+    public Page<ProductAllDTO> search(long addressId, List<Long> blockedIds, String words, LocalDateTime cutoffDateTime, Pageable pageable) {
+        Set<String> tokens = NgramTokenizer.tokenize(words);
+        if (tokens.isEmpty()) return Page.empty(pageable);
+
+        // 정렬은 관련도 기준으로 쿼리에서 처리하므로 페이지 정보만 넘긴다
+        Pageable unsorted = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        Page<Long> ids = productSearchTokenRepository.searchProductIds(addressId, blockedIds, tokens, tokens.size(), cutoffDateTime, unsorted);
+        if (ids.isEmpty()) return new PageImpl<>(Collections.emptyList(), pageable, ids.getTotalElements());
+
+        Map<Long, ProductAllDTO> products = productRepository.findAllDtoByIdIn(ids.getContent()).stream()
+                .collect(Collectors.toMap(ProductAllDTO::getId, Function.identity()));
+        List<ProductAllDTO> content = ids.getContent().stream()
+                .map(products::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        return new PageImpl<>(content, pageable, ids.getTotalElements());
+    }
+
+    /*
+     * 기존 상품 색인 - id 순 페이지마다 트랜잭션을 나눠 커밋하고, 같은 트랜잭션에서 마지막으로 색인한 id 를 기록한다.
+     * 중간에 중단되면 다음 기동 때 기록한 id 다음부터 이어서 하고 (색인은 교체라 다시 해도 된다), 끝나면 완료로 표시한다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void backfill() {
+        BackfillState state = backfillStateRepository.findById(BACKFILL_NAME).orElseGet(() -> new BackfillState(BACKFILL_NAME));
+        if (state.isCompleted()) return;
+
+        int indexed = 0;
+        int size;
+        do {
+            size = transactionTemplate.execute(status -> indexPage(state));
+            indexed += size;
+        } while (size == BACKFILL_PAGE_SIZE);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            state.complete();
+            backfillStateRepository.save(state);
+        });
+        log.info("product search index backfill : {} products after id {}", indexed, state.getLastId());
+    }
+
+    private int indexPage(BackfillState state) {
+        List<Product> products = productRepository.findByIdGreaterThanOrderByIdAsc(state.getLastId(), PageRequest.of(0, BACKFILL_PAGE_SIZE));
+        for (Product product : products) {
+            if (!product.isDeleted()) {
+                index(product);
+            }
+        }
+        if (!products.isEmpty()) {
+            state.advance(products.get(products.size() - 1).getId());
+            backfillStateRepository.save(state);
+        }
+        return products.size();
+    }
+}
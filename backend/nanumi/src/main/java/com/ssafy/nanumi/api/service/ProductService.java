@@ -1,26 +1,32 @@
 package com.ssafy.nanumi.api.service;
 
-import com.amazonaws.services.s3.AmazonS3;
-import com.amazonaws.services.s3.model.ObjectMetadata;
 import com.ssafy.nanumi.api.response.ProductAllDTO;
 import com.ssafy.nanumi.api.response.ProductDetailDTO;
+import com.ssafy.nanumi.api.response.ProductFeedResDTO;
+import com.ssafy.nanumi.api.service.ProductImageUploader.UploadedImage;
+import com.ssafy.nanumi.common.ProductFeedCursor;
+import com.ssafy.nanumi.common.cache.BlacklistCache;
+import com.ssafy.nanumi.common.cache.ProductFeedCache;
+import com.ssafy.nanumi.common.cache.ProductFeedEntry;
+import com.ssafy.nanumi.common.search.NgramTokenizer;
+import com.ssafy.nanumi.common.window.SharingWindowProvider;
 import com.ssafy.nanumi.config.response.exception.CustomException;
 import com.ssafy.nanumi.config.response.exception.CustomExceptionStatus;
 import com.ssafy.nanumi.db.entity.*;
 import com.ssafy.nanumi.db.repository.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.*;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
-import java.time.LocalDateTime;
-import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static com.ssafy.nanumi.config.response.exception.CustomExceptionStatus.*;
 
@@ -35,11 +41,12 @@ public class ProductService {
     private final AddressRepository addressRepository;
     private final ProductImageRepository productImageRepository;
     private final UserRepository userRepository;
-    private final BlacklistRepository blacklistRepository;
-
-    @Value("${cloud.aws.s3.bucket}")
-    private String bucket;
-    private final AmazonS3 amazonS3;
+    private final BlacklistCache blacklistCache;
+    private final ProductSearchIndexService productSearchIndexService;
+    private final ProductImageUploader productImageUploader;
+    private final TransactionTemplate transactionTemplate;
+    private final SharingWindowProvider sharingWindowProvider;
+    private final ProductFeedCache productFeedCache;
 
 
     public Page<ProductAllDTO> searchProductByWords(long userId, String words, PageRequest pageRequest) throws UnsupportedEncodingException {
@@ -54,18 +61,17 @@ public class ProductService {
 //        words = URLDecoder.decode(words, StandardCharsets.UTF_8);
 
         // 검색어가 없다면 빈 페이지 반환
-        if(words.equals("") || words==null)  return Page.empty(pageRequest);
-
+        if(words==null || words.equals(""))  return Page.empty(pageRequest);
 
-        // 차단자 조회
-        List<Long> blockers = blacklistRepository.findBlockerId(user.getId());
-        blockers.add(0L);
 
-        // 차단대상자 조회
-        List<Long> targets = blacklistRepository.findTargetId(user.getId());
-        targets.add(0L);
+        // 차단 관계 사용자 조회 (캐시)
+        List<Long> blockedIds = blacklistCache.getBlockedIdList(user.getId());
 
-        return productRepository.searchAll(address.getId(), blockers, targets, words, calCutoffDateTime(), pageRequest);
+        // 두 글자 이상 단어가 있으면 n-gram 색인 검색 (한 글자 단어는 무시), 한 글자 단어뿐이면 기존 LIKE 검색
+        if (NgramTokenizer.isIndexable(words)) {
+            return productSearchIndexService.search(address.getId(), blockedIds, words, sharingWindowProvider.cutoffDateTime(), pageRequest);
+        }
+        return productRepository.searchAll(address.getId(), blockedIds, words, sharingWindowProvider.cutoffDateTime(), pageRequest);
     }
 
     public Page<ProductAllDTO> findProductAll(long userId, PageRequest pageRequest) {
@@ -75,15 +81,42 @@ public class ProductService {
 
         Long addressId = user.getAddress().getId();
 
-        // 차단자 조회
-        List<Long> blockers = blacklistRepository.findBlockerId(user.getId());
-        blockers.add(0L);
+        // 동네 피드 캐시에서 차단 관계 사용자 상품 제외
+        List<ProductFeedEntry> entries = filterBlocked(productFeedCache.getEntries(addressId), user.getId());
+
+        return toPage(entries, pageRequest);
+    }
+
+    /* 커서 기반 피드 조회 - 깊은 페이지도 첫 페이지와 같은 비용 */
+    public ProductFeedResDTO findProductFeed(long userId, String cursor, int size) {
 
-        // 차단대상자 조회
-        List<Long> targets = blacklistRepository.findTargetId(user.getId());
-        targets.add(0L);
+        User user = userRepository.findById(userId)
+                .orElseThrow(()-> new CustomException(CustomExceptionStatus.NOT_FOUND_USER));
+
+        Long addressId = user.getAddress().getId();
+
+        // 동네 피드 캐시에서 차단 관계 사용자 상품 제외
+        List<ProductFeedEntry> entries = filterBlocked(productFeedCache.getEntries(addressId), user.getId());
 
-        return productRepository.findAllProduct(addressId, blockers, targets, calCutoffDateTime() ,pageRequest);
+        int from = 0;
+        if (cursor != null && !cursor.isBlank()) {
+            from = indexAfter(entries, ProductFeedCursor.decode(cursor));
+        }
+        int to = Math.min(from + size, entries.size());
+        List<ProductFeedEntry> pageEntries = entries.subList(from, to);
+        boolean hasNext = to < entries.size();
+
+        String nextCursor = null;
+        if (hasNext && !pageEntries.isEmpty()) {
+            ProductFeedEntry last = pageEntries.get(pageEntries.size() - 1);
+            nextCursor = new ProductFeedCursor(last.getCreateDate(), last.getProductId()).encode();
+        }
+
+        return ProductFeedResDTO.builder()
+                .content(findDtos(pageEntries))
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .build();
     }
 
     public ProductDetailDTO findByProductId(Long productId) {
@@ -107,18 +140,56 @@ public class ProductService {
 
         Long addressId = user.getAddress().getId();
 
-        // 차단자 조회
-        List<Long> blockers = blacklistRepository.findBlockerId(user.getId());
-        blockers.add(0L);
+        // 동네/카테고리 피드 캐시에서 차단 관계 사용자 상품 제외
+        List<ProductFeedEntry> entries = filterBlocked(productFeedCache.getEntries(addressId, categoryId), user.getId());
 
-        // 차단대상자 조회
-        List<Long> targets = blacklistRepository.findTargetId(user.getId());
-        targets.add(0L);
+        return toPage(entries, pageRequest);
+    }
 
+    /* 차단 관계 사용자의 상품 제외 (캐시된 정렬 배열로 이진 탐색) */
+    private List<ProductFeedEntry> filterBlocked(List<ProductFeedEntry> entries, long userId) {
+        long[] blockedIds = blacklistCache.getBlockedIds(userId);
+        if (blockedIds.length == 0) return entries;
+        return entries.stream()
+                .filter(entry -> Arrays.binarySearch(blockedIds, entry.getUserId()) < 0)
+                .collect(Collectors.toList());
+    }
 
-        return productRepository.findAllCategoryProduct(addressId,categoryId, blockers, targets, calCutoffDateTime(), pageRequest);
-}
+    /* 커서 다음 항목의 위치 - 최신순 정렬이므로 isAfter 는 false...false, true...true 로 나뉜다 (이진 탐색) */
+    private int indexAfter(List<ProductFeedEntry> entries, ProductFeedCursor cursor) {
+        int low = 0;
+        int high = entries.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (entries.get(mid).isAfter(cursor.getCreateDate(), cursor.getId())) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    private Page<ProductAllDTO> toPage(List<ProductFeedEntry> entries, Pageable pageable) {
+        int from = (int) Math.min(pageable.getOffset(), entries.size());
+        int to = Math.min(from + pageable.getPageSize(), entries.size());
+        return new PageImpl<>(findDtos(entries.subList(from, to)), pageable, entries.size());
+    }
+
+    /* 현재 페이지 상품만 조회하고 피드 순서대로 정렬 */
+    private List<ProductAllDTO> findDtos(List<ProductFeedEntry> entries) {
+        if (entries.isEmpty()) return Collections.emptyList();
+        List<Long> ids = entries.stream().map(ProductFeedEntry::getProductId).collect(Collectors.toList());
+        Map<Long, ProductAllDTO> products = productRepository.findAllDtoByIdIn(ids).stream()
+                .collect(Collectors.toMap(ProductAllDTO::getId, Function.identity()));
+        return ids.stream()
+                .map(products::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
 
+    /* 이미지 업로드는 트랜잭션 밖에서 병렬로 처리하고, 업로드가 끝난 뒤 상품을 저장한다 */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void createProduct(MultipartFile[] images,String name,String content,Long categoryId, User user) throws IOException {
 
 //        // 서버시간 확인.
@@ -131,33 +202,36 @@ public class ProductService {
         Category category = categoryRepository.findById(categoryId)
                 .orElseThrow(()-> new CustomException(CustomExceptionStatus.NOT_FOUND_CATEGORY));
 
-        Address address = user.getAddress();
-
-        Product product = Product.builder()
-                .name(name)
-                .content(content)
-                .isClosed(false)
-                .isDeleted(false)
-                .user(user)
-                .category(category)
-                .address(address)
-                .build();
-        Product createProduct = productRepository.save(product);
-
-        for(MultipartFile file : images) {
-            String s3FileName = UUID.randomUUID() + "-" + file.getOriginalFilename();
-            ObjectMetadata objMeta = new ObjectMetadata();
-            objMeta.setContentLength(file.getInputStream().available());
-            amazonS3.putObject(bucket, s3FileName, file.getInputStream(), objMeta);
-            String imageString = amazonS3.getUrl(bucket, s3FileName).toString();
-            ProductImage productImage = ProductImage.builder()
-                    .imageUrl(imageString)
-                    .product(createProduct)
-                    .build();
-            productImageRepository.save(productImage);
+        List<UploadedImage> uploadedImages = productImageUploader.uploadAll(images);
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Product product = Product.builder()
+                        .name(name)
+                        .content(content)
+                        .isClosed(false)
+                        .isDeleted(false)
+                        .user(user)
+                        .category(category)
+                        .address(user.getAddress())
+                        .build();
+                Product createProduct = productRepository.save(product);
+
+                saveProductImages(uploadedImages, createProduct);
+
+                // 검색 색인
+                productSearchIndexService.index(createProduct);
+
+                // 동네 피드 캐시 무효화
+                productFeedCache.evictAfterCommit(user.getAddress().getId());
+            });
+        } catch (RuntimeException e) {
+            productImageUploader.deleteAll(uploadedImages);
+            throw e;
         }
     }
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void updateProduct(long userId,
                               Long productId,
                               MultipartFile[] images,
@@ -165,36 +239,59 @@ public class ProductService {
                               String content,
                               Long categoryId) throws IOException {
 
-        Product product = productRepository.findById(productId)
-                .orElseThrow(()-> new CustomException(CustomExceptionStatus.NOT_FOUND_PRODUCT));
+        // 업로드 전에 권한/카테고리 검증
+        transactionTemplate.executeWithoutResult(status -> {
+            Product product = productRepository.findById(productId)
+                    .orElseThrow(()-> new CustomException(CustomExceptionStatus.NOT_FOUND_PRODUCT));
 
-        if (userId != product.getUser().getId()){
-            throw new CustomException(NOT_ALLOWED_USER);
-        }
+            if (userId != product.getUser().getId()){
+                throw new CustomException(NOT_ALLOWED_USER);
+            }
+        });
 
         Category category = categoryRepository.findById(categoryId)
                 .orElseThrow(()-> new CustomException(CustomExceptionStatus.NOT_FOUND_CATEGORY));
 
-        List<ProductImage> beforeImages = product.getProductImages();
-        productImageRepository.deleteAll(beforeImages);
+        List<UploadedImage> uploadedImages = productImageUploader.uploadAll(images);
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Product product = productRepository.findById(productId)
+                        .orElseThrow(()-> new CustomException(CustomExceptionStatus.NOT_FOUND_PRODUCT));
 
-        for(MultipartFile file : images) {
-            String s3FileName = UUID.randomUUID() + "-" + file.getOriginalFilename();
-            ObjectMetadata objMeta = new ObjectMetadata();
-            objMeta.setContentLength(file.getInputStream().available());
-            amazonS3.putObject(bucket, s3FileName, file.getInputStream(), objMeta);
-            String imageString = amazonS3.getUrl(bucket, s3FileName).toString();
+                List<ProductImage> beforeImages = product.getProductImages();
+                productImageRepository.deleteAll(beforeImages);
+
+                saveProductImages(uploadedImages, product);
+
+                product.setName(name);
+                product.setContent(content);
+                product.setCategory(category);
+
+                // 검색 색인 갱신
+                productSearchIndexService.index(product);
+
+                // 동네 피드 캐시 무효화 (카테고리 변경 반영)
+                productFeedCache.evictAfterCommit(product.getAddress().getId());
+            });
+        } catch (RuntimeException e) {
+            productImageUploader.deleteAll(uploadedImages);
+            throw e;
+        }
+    }
+
+    private void saveProductImages(List<UploadedImage> uploadedImages, Product product) {
+        for (UploadedImage uploadedImage : uploadedImages) {
             ProductImage productImage = ProductImage.builder()
-                    .imageUrl(imageString)
+                    .imageUrl(uploadedImage.getUrl())
+                    .detailUrl(uploadedImage.getDetailUrl())
+                    .thumbnailUrl(uploadedImage.getThumbnailUrl())
                     .product(product)
                     .build();
             productImageRepository.save(productImage);
         }
-        product.setName(name);
-        product.setContent(content);
-        product.setCategory(category);
-
     }
+
     public void deleteProduct(long userId, Long productId){
         
         Product product = productRepository.findById(productId)
@@ -204,31 +301,11 @@ public class ProductService {
             throw new CustomException(NOT_ALLOWED_USER);
         }
         product.delete();
-    }
-    private LocalDateTime calCutoffDateTime(){
-        // Local time 체크
-        LocalDateTime currentDateTime = LocalDateTime.now();
-        LocalDateTime cutoffDateTime;
-
-        // 로그
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-        String formattedDateTime = currentDateTime.format(formatter);
-        log.info("Current DateTime: {}", formattedDateTime);
-
-        // cutoffDateTime 계산
-        int time = currentDateTime.toLocalTime().compareTo(LocalTime.of(11, 30));
-        if (time < 0) {
-            // 현재 시간이 오후 3시 이전인 경우 처리 - 전날 3시 ~
-            cutoffDateTime = LocalDateTime.of(currentDateTime.toLocalDate().minusDays(1), LocalTime.of(11, 30));
-        } else {
-            // 현재 시간이 오후 3시 이후인 경우 처리 - 오늘 3시 ~
-            cutoffDateTime = LocalDateTime.of(currentDateTime.toLocalDate(), LocalTime.of(11, 30));
-        }
 
-        //로그
-        String formattedcutoffDateTime = cutoffDateTime.format(formatter);
-        log.info("CutoffDateTime : {}", formattedcutoffDateTime);
+        // 검색 색인 제거
+        productSearchIndexService.remove(productId);
 
-        return cutoffDateTime ;
+        // 동네 피드 캐시 무효화
+        productFeedCache.evictAfterCommit(product.getAddress().getId());
     }
 }
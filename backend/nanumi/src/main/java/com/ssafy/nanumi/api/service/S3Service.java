@@ -2,6 +2,9 @@ package com.ssafy.nanumi.api.service;
 
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.ssafy.nanumi.common.image.EncodedImage;
+import com.ssafy.nanumi.common.image.ImageVariant;
+import com.ssafy.nanumi.common.image.ImageVariantProcessor;
 import com.ssafy.nanumi.config.response.exception.CustomException;
 import com.ssafy.nanumi.config.response.exception.CustomExceptionStatus;
 import com.ssafy.nanumi.db.entity.Product;
@@ -9,15 +12,11 @@ import com.ssafy.nanumi.db.entity.ProductImage;
 import com.ssafy.nanumi.db.repository.ProductImageRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
-import javax.imageio.ImageIO;
-import java.awt.*;
-import java.awt.image.BufferedImage;
-import java.io.ByteArrayOutputStream;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.Objects;
@@ -31,19 +30,18 @@ public class S3Service {
     private String bucket;
     private final AmazonS3 amazonS3;
     private final ProductImageRepository productImageRepository;
+    private final ImageVariantProcessor imageVariantProcessor;
 
     public void imageSave(MultipartFile[] images, Product product) throws IOException {
         for (MultipartFile file : images) {
             checkSupportedformat(file);
-            MultipartFile resizeImageFile = resizeImageFile(file);
-            String imageString = saveS3Image(resizeImageFile);
+            String imageString = saveResizedImage(file);
             saveDBImage(imageString, product);
         }
     }
     public String stringImage(MultipartFile image) throws IOException {
         checkSupportedformat(image);
-        MultipartFile resizeImageFile = resizeImageFile(image);
-        return saveS3Image(resizeImageFile);
+        return saveResizedImage(image);
     }
 
     private void checkSupportedformat(MultipartFile file) {
@@ -54,11 +52,23 @@ public class S3Service {
             throw new CustomException(CustomExceptionStatus.NOT_SUPPORTED_FORMAT);
         }
     }
-    private String saveS3Image(MultipartFile file) throws IOException {
-        String s3FileName = UUID.randomUUID() + "-" + file.getOriginalFilename();
+    /* 썸네일 크기로 변환해서 저장 - 이미 작거나 디코딩할 수 없으면 원본 그대로 저장 */
+    private String saveResizedImage(MultipartFile file) throws IOException {
+        byte[] bytes = file.getBytes();
+        EncodedImage thumbnail = imageVariantProcessor.process(bytes, ImageVariant.THUMBNAIL);
+        if (thumbnail == null) {
+            return saveS3Image(UUID.randomUUID() + "-" + file.getOriginalFilename(), bytes, file.getContentType());
+        }
+        String s3FileName = UUID.randomUUID() + "-" + ImageVariant.THUMBNAIL.getSuffix() + "." + thumbnail.getExtension();
+        return saveS3Image(s3FileName, thumbnail.getBytes(), thumbnail.getContentType());
+    }
+    private String saveS3Image(String s3FileName, byte[] bytes, String contentType) {
         ObjectMetadata objMeta = new ObjectMetadata();
-        objMeta.setContentLength(file.getInputStream().available());
-        amazonS3.putObject(bucket, s3FileName, file.getInputStream(), objMeta);
+        objMeta.setContentLength(bytes.length);
+        if (contentType != null) {
+            objMeta.setContentType(contentType);
+        }
+        amazonS3.putObject(bucket, s3FileName, new ByteArrayInputStream(bytes), objMeta);
         return amazonS3.getUrl(bucket, s3FileName).toString();
     }
     private void saveDBImage(String imageString,Product product){
@@ -68,30 +78,4 @@ public class S3Service {
                 .build();
         productImageRepository.save(productImage);
     }
-    private MultipartFile resizeImageFile(MultipartFile file) throws IOException {
-        // 이미지 읽어 오기
-        BufferedImage inputImage = ImageIO.read(file.getInputStream());
-        // 이미지 세로 가로 측정
-        int originWidth = inputImage.getWidth();
-        int originHeight = inputImage.getHeight();
-        // 변경할 가로 길이
-        int newWidth = 100;
-        if (originWidth > newWidth) {
-            // 기존 이미지 비율을 유지하여 세로 길이 설정
-            int newHeight = (originHeight * newWidth) / originWidth;
-            Image resizeImage = inputImage.getScaledInstance(newWidth, newHeight, Image.SCALE_FAST);
-            BufferedImage newImage = new BufferedImage(newWidth, newHeight, BufferedImage.TYPE_INT_RGB);
-            Graphics graphics = newImage.getGraphics();
-            graphics.drawImage(resizeImage, 0, 0, null);
-            graphics.dispose();
-            // 이미지 저장
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            ImageIO.write(newImage, "jpg", baos);
-            byte[] bytes = baos.toByteArray();
-            MultipartFile resizedFile = new MockMultipartFile("file", bytes);
-            return resizedFile;
-        } else {
-            return file;
-        }
-    }
 }
@@ -39,6 +39,7 @@ public class UserService {
     private final EmailService emailService;
     private final S3Service s3Service;
     private final JwtProvider jwtProvider;
+    private final ChatInboxService chatInboxService;
 
     public UserLoginResDTO login(UserLoginDTO userLoginDTO){
         LoginProvider loginProvider = loginProviderRepository
@@ -224,6 +225,8 @@ public class UserService {
             }
         }
         user.updateUserInfo(userNickname, imageString);
+        // 상대방 채팅방 목록의 닉네임/프로필 스냅샷 갱신
+        chatInboxService.updateOpponentSnapshot(user.getId(), userNickname, imageString);
         return new UserSimpleDTO(user);
     }
     public void deleteUser(User user) {
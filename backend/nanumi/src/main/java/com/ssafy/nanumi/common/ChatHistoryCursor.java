@@ -0,0 +1,44 @@
+package com.ssafy.nanumi.common;
+
+import com.ssafy.nanumi.config.response.exception.CustomException;
+import com.ssafy.nanumi.config.response.exception.CustomExceptionStatus;
+import lombok.Getter;
+import org.bson.types.ObjectId;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * 채팅 기록 커서.
+ * 기준 메시지의 (ts, _id) 를 클라이언트에는 불투명한 문자열로 전달한다. 같은 ts 는 _id 로 순서를 정한다.
+ */
+@Getter
+public class ChatHistoryCursor {
+    private static final String DELIMITER = ",";
+
+    private final long ts;
+    private final ObjectId id;
+
+    public ChatHistoryCursor(long ts, ObjectId id) {
+        this.ts = ts;
+        this.id = id;
+    }
+
+    public String encode() {
+        String raw = ts + DELIMITER + id.toHexString();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ChatHistoryCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(DELIMITER);
+            if (parts.length != 2 || !ObjectId.isValid(parts[1])) {
+                throw new CustomException(CustomExceptionStatus.INVALID_CURSOR);
+            }
+            return new ChatHistoryCursor(Long.parseLong(parts[0]), new ObjectId(parts[1]));
+        } catch (IllegalArgumentException e) {
+            throw new CustomException(CustomExceptionStatus.INVALID_CURSOR);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.ssafy.nanumi.common;
+
+import lombok.Getter;
+
+/*
+ * /sub/user/{id} 로 보내는 읽음 관련 변경분 - UNREAD: 내 읽지 않은 수, READ: 상대방 읽음 확인
+ * UNREAD 의 seq 는 사용자별로 증가하므로, 클라이언트는 이미 받은 것보다 작은 seq 의 수는 버린다.
+ */
+@Getter
+public class ChatReadEventDTO {
+    private final String type;
+    private final long chatRoom;
+    private final long person;
+    private final long unreadCount;
+    private final long readTs;
+    private final long seq;
+
+    private ChatReadEventDTO(String type, long chatRoom, long person, long unreadCount, long readTs, long seq) {
+        this.type = type;
+        this.chatRoom = chatRoom;
+        this.person = person;
+        this.unreadCount = unreadCount;
+        this.readTs = readTs;
+        this.seq = seq;
+    }
+
+    public static ChatReadEventDTO unread(long chatRoom, long unreadCount, long seq) {
+        return new ChatReadEventDTO("UNREAD", chatRoom, 0L, unreadCount, 0L, seq);
+    }
+
+    public static ChatReadEventDTO read(long chatRoom, long reader, long readTs) {
+        return new ChatReadEventDTO("READ", chatRoom, reader, 0L, readTs, 0L);
+    }
+}
@@ -16,6 +16,7 @@ public class ChatRoomInfoDTO {
     private LocalDateTime lastMessageTime;
     private long productId;
     private boolean isBlocked;
+    private long unreadCount;
 
 
 }
\ No newline at end of file
@@ -0,0 +1,45 @@
+package com.ssafy.nanumi.common;
+
+import com.ssafy.nanumi.config.response.exception.CustomException;
+import com.ssafy.nanumi.config.response.exception.CustomExceptionStatus;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * 상품 피드 keyset 페이지네이션 커서.
+ * 마지막으로 내려준 상품의 (createDate, id) 를 클라이언트에는 불투명한 문자열로 전달한다.
+ */
+@Getter
+public class ProductFeedCursor {
+    private static final String DELIMITER = ",";
+
+    private final LocalDateTime createDate;
+    private final long id;
+
+    public ProductFeedCursor(LocalDateTime createDate, long id) {
+        this.createDate = createDate;
+        this.id = id;
+    }
+
+    public String encode() {
+        String raw = createDate + DELIMITER + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ProductFeedCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(DELIMITER);
+            if (parts.length != 2) {
+                throw new CustomException(CustomExceptionStatus.INVALID_CURSOR);
+            }
+            return new ProductFeedCursor(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new CustomException(CustomExceptionStatus.INVALID_CURSOR);
+        }
+    }
+}
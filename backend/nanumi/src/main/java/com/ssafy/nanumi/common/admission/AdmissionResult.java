@@ -0,0 +1,9 @@
+package com.ssafy.nanumi.common.admission;
+
+/* 나눔 신청 선착순 판정 결과 */
+public enum AdmissionResult {
+    ADMITTED,       // 신청 성공
+    ADMITTED_LAST,  // 신청 성공 - 마지막 자리 (상품 마감)
+    DUPLICATE,      // 이미 신청한 사용자
+    FULL            // 인원 마감
+}
@@ -0,0 +1,88 @@
+package com.ssafy.nanumi.common.admission;
+
+import lombok.RequiredArgsConstructor;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * 상품별 나눔 신청 선착순 판정.
+ * 신청자 id 를 Redis set 에 보관하고 중복 확인/인원 확인/추가를 Lua script 한 번으로 처리해서
+ * 상품 단위 분산 락 없이 먼저 온 서로 다른 사용자 limit 명만 통과시킨다.
+ * set 이 없으면 (최초 신청, 만료) DB 의 기존 신청자로 채운 뒤 판정한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class NanumAdmission {
+    private static final String KEY_PREFIX = "nanum:admit:";
+    private static final String SEED_MEMBER = "0"; // 신청자가 없어도 set 이 존재하도록 넣는 표시값
+
+    // 1: 성공, 2: 성공(마지막 자리), 0: 중복, -2: 마감, -1: set 없음
+    private static final String ADMIT_SCRIPT =
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return -1 end " +
+            "if redis.call('SISMEMBER', KEYS[1], ARGV[1]) == 1 then return 0 end " +
+            "local limit = tonumber(ARGV[2]) " +
+            "if redis.call('SCARD', KEYS[1]) - 1 >= limit then return -2 end " +
+            "redis.call('SADD', KEYS[1], ARGV[1]) " +
+            "if redis.call('SCARD', KEYS[1]) - 1 >= limit then return 2 end " +
+            "return 1";
+
+    // 다른 서버가 먼저 채웠으면 그대로 둔다
+    private static final String SEED_SCRIPT =
+            "if redis.call('EXISTS', KEYS[1]) == 1 then return 0 end " +
+            "redis.call('SADD', KEYS[1], unpack(ARGV, 2)) " +
+            "redis.call('EXPIRE', KEYS[1], tonumber(ARGV[1])) " +
+            "return 1";
+
+    private final RedissonClient redissonClient;
+
+    @Value("${nanumi.nanum.limit:3}")
+    private int limit;
+
+    @Value("${nanumi.nanum.admission-ttl-seconds:172800}")
+    private long ttlSeconds;
+
+    /* 선착순 판정 - existingUserIds 는 set 이 없을 때만 호출된다 */
+    public AdmissionResult admit(long productId, long userId, Supplier<List<Long>> existingUserIds) {
+        String key = KEY_PREFIX + productId;
+        long result = evalAdmit(key, userId);
+        if (result == -1) {
+            seed(key, existingUserIds.get());
+            result = evalAdmit(key, userId);
+        }
+
+        if (result == 1) return AdmissionResult.ADMITTED;
+        if (result == 2) return AdmissionResult.ADMITTED_LAST;
+        if (result == 0) return AdmissionResult.DUPLICATE;
+        return AdmissionResult.FULL;
+    }
+
+    /* 신청 저장 실패 시 자리 반환 */
+    public void release(long productId, long userId) {
+        redissonClient.getSet(KEY_PREFIX + productId, StringCodec.INSTANCE).remove(String.valueOf(userId));
+    }
+
+    private long evalAdmit(String key, long userId) {
+        Long result = redissonClient.getScript(StringCodec.INSTANCE).eval(key, RScript.Mode.READ_WRITE, ADMIT_SCRIPT,
+                RScript.ReturnType.INTEGER, Collections.singletonList(key), String.valueOf(userId), String.valueOf(limit));
+        return result;
+    }
+
+    private void seed(String key, List<Long> userIds) {
+        List<Object> args = new ArrayList<>(userIds.size() + 2);
+        args.add(String.valueOf(ttlSeconds));
+        args.add(SEED_MEMBER);
+        for (Long userId : userIds) {
+            args.add(String.valueOf(userId));
+        }
+        redissonClient.getScript(StringCodec.INSTANCE).eval(key, RScript.Mode.READ_WRITE, SEED_SCRIPT,
+                RScript.ReturnType.INTEGER, Collections.singletonList(key), args.toArray());
+    }
+}
@@ -0,0 +1,136 @@
+package com.ssafy.nanumi.common.cache;
+
+import com.ssafy.nanumi.db.repository.BlacklistRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.LongCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * 사용자별 차단 관계 캐시.
+ * userId 를 차단한 사용자 + userId 가 차단한 사용자를 정렬된 long 배열로 보관하고,
+ * 차단/차단 해제 시 Redis topic 으로 모든 서버의 캐시를 무효화한다.
+ * DB 에서 읽는 동안 무효화가 일어나면 읽은 값은 캐시하지 않고 (generation 비교), 항목은 일정 시간 뒤 만료된다.
+ */
+@Slf4j
+@Component
+public class BlacklistCache {
+    private static final String EVICT_TOPIC = "blacklist:evict";
+    private static final long[] EMPTY = new long[0];
+
+    private final BlacklistRepository blacklistRepository;
+    private final RedissonClient redissonClient;
+
+    private final Cache<Long, long[]> blockedIds;
+    // 무효화할 때마다 증가 - 읽기 시작 후 값이 바뀌었으면 읽은 값을 버린다
+    private final AtomicLong generation = new AtomicLong();
+    private RTopic evictTopic;
+
+    public BlacklistCache(BlacklistRepository blacklistRepository, RedissonClient redissonClient,
+                          @Value("${nanumi.blacklist-cache.ttl-minutes:10}") long ttlMinutes,
+                          @Value("${nanumi.blacklist-cache.max-size:100000}") long maxSize) {
+        this.blacklistRepository = blacklistRepository;
+        this.redissonClient = redissonClient;
+        this.blockedIds = Caffeine.newBuilder()
+                .expireAfterWrite(ttlMinutes, TimeUnit.MINUTES)
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    @PostConstruct
+    void subscribe() {
+        evictTopic = redissonClient.getTopic(EVICT_TOPIC, LongCodec.INSTANCE);
+        evictTopic.addListener(Long.class, (channel, userId) -> invalidate(userId));
+    }
+
+    /* 차단 관계에 있는 사용자 id (정렬됨) */
+    public long[] getBlockedIds(long userId) {
+        long[] ids = blockedIds.getIfPresent(userId);
+        if (ids != null) {
+            return ids;
+        }
+        long loadedAt = generation.get();
+        ids = load(userId);
+        if (generation.get() == loadedAt) {
+            blockedIds.put(userId, ids);
+            // put 직전에 무효화가 끼어든 경우 - 방금 넣은 값만 지운다
+            if (generation.get() != loadedAt) {
+                blockedIds.asMap().remove(userId, ids);
+            }
+        }
+        return ids;
+    }
+
+    /* 두 사용자가 차단 관계인지 확인 */
+    public boolean isBlocked(long userId, long otherId) {
+        return Arrays.binarySearch(getBlockedIds(userId), otherId) >= 0;
+    }
+
+    /* NOT IN 절에 바로 넘길 수 있는 목록 - 빈 목록 방지를 위해 0 을 포함한다 */
+    public List<Long> getBlockedIdList(long userId) {
+        long[] ids = getBlockedIds(userId);
+        List<Long> list = new ArrayList<>(ids.length + 1);
+        list.add(0L);
+        for (long id : ids) {
+            list.add(id);
+        }
+        return list;
+    }
+
+    /* 트랜잭션 커밋 이후 캐시 무효화 - 커밋 전 값이 다시 캐시되는 것을 막는다 */
+    public void evictAfterCommit(long... userIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(userIds);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict(userIds);
+            }
+        });
+    }
+
+    private void evict(long... userIds) {
+        for (long userId : userIds) {
+            invalidate(userId);
+            try {
+                evictTopic.publish(userId);
+            } catch (Exception e) {
+                log.warn("blacklist evict publish failed : {}", userId, e);
+            }
+        }
+    }
+
+    private void invalidate(long userId) {
+        generation.incrementAndGet();
+        blockedIds.invalidate(userId);
+    }
+
+    private long[] load(long userId) {
+        List<Long> blockers = blacklistRepository.findBlockerId(userId);
+        List<Long> targets = blacklistRepository.findTargetId(userId);
+        if (blockers.isEmpty() && targets.isEmpty()) {
+            return EMPTY;
+        }
+        return Stream.concat(blockers.stream(), targets.stream())
+                .mapToLong(Long::longValue)
+                .sorted()
+                .distinct()
+                .toArray();
+    }
+}
@@ -0,0 +1,120 @@
+package com.ssafy.nanumi.common.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ssafy.nanumi.db.entity.ChatRoomEntity;
+import com.ssafy.nanumi.db.repository.ChatRoomRepository;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.LongCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 채팅방 참여자 캐시 (roomSeq -> 참여자 2명 + 활성화 여부).
+ * 메시지 전송 시 DB 조회 없이 보낸 사람 확인과 상대방 id 조회를 처리한다.
+ * 채팅방 생성 시 미리 채우고, 신고(비활성화) 시 Redis topic 으로 모든 서버의 캐시를 무효화한다.
+ * DB 에서 읽는 동안 무효화가 일어나면 읽은 값은 캐시하지 않고 (generation 비교), 항목은 일정 시간 뒤 만료된다.
+ */
+@Slf4j
+@Component
+public class ChatRoomMembershipCache {
+    private static final String EVICT_TOPIC = "chatroom:evict";
+
+    private final ChatRoomRepository chatRoomRepository;
+    private final RedissonClient redissonClient;
+
+    private final Cache<Long, Membership> memberships;
+    // 무효화할 때마다 증가 - 읽기 시작 후 값이 바뀌었으면 읽은 값을 버린다
+    private final AtomicLong generation = new AtomicLong();
+    private RTopic evictTopic;
+
+    public ChatRoomMembershipCache(ChatRoomRepository chatRoomRepository, RedissonClient redissonClient,
+                                   @Value("${nanumi.chatroom-cache.ttl-minutes:30}") long ttlMinutes,
+                                   @Value("${nanumi.chatroom-cache.max-size:100000}") long maxSize) {
+        this.chatRoomRepository = chatRoomRepository;
+        this.redissonClient = redissonClient;
+        this.memberships = Caffeine.newBuilder()
+                .expireAfterWrite(ttlMinutes, TimeUnit.MINUTES)
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    @PostConstruct
+    void subscribe() {
+        evictTopic = redissonClient.getTopic(EVICT_TOPIC, LongCodec.INSTANCE);
+        evictTopic.addListener(Long.class, (channel, roomSeq) -> invalidate(roomSeq));
+    }
+
+    /* 채팅방 참여 정보 - 없는 방이면 null */
+    public Membership get(long roomSeq) {
+        Membership membership = memberships.getIfPresent(roomSeq);
+        if (membership != null) {
+            return membership;
+        }
+        long loadedAt = generation.get();
+        ChatRoomEntity chatRoom = chatRoomRepository.findChatRoomEntityByChatroomSeq(roomSeq);
+        if (chatRoom == null) return null;
+        membership = Membership.of(chatRoom);
+        if (generation.get() == loadedAt) {
+            memberships.put(roomSeq, membership);
+            // put 직전에 무효화가 끼어든 경우 - 방금 넣은 값만 지운다
+            if (generation.get() != loadedAt) {
+                memberships.asMap().remove(roomSeq, membership);
+            }
+        }
+        return membership;
+    }
+
+    /* 채팅방 생성 직후 미리 채운다 */
+    public void warm(ChatRoomEntity chatRoom) {
+        memberships.put(chatRoom.getChatroomSeq(), Membership.of(chatRoom));
+    }
+
+    public void evict(long roomSeq) {
+        invalidate(roomSeq);
+        try {
+            evictTopic.publish(roomSeq);
+        } catch (Exception e) {
+            log.warn("chat room evict publish failed : {}", roomSeq, e);
+        }
+    }
+
+    private void invalidate(long roomSeq) {
+        generation.incrementAndGet();
+        memberships.invalidate(roomSeq);
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Membership {
+        private final long firstUserId;
+        private final long secondUserId;
+        private final boolean active;
+
+        static Membership of(ChatRoomEntity chatRoom) {
+            long[] users = chatRoom.getUserList();
+            long first = users != null && users.length > 0 ? users[0] : 0L;
+            long second = users != null && users.length > 1 ? users[1] : 0L;
+            return new Membership(first, second, chatRoom.isActivate());
+        }
+
+        public boolean contains(long userId) {
+            return firstUserId == userId || secondUserId == userId;
+        }
+
+        /* 상대방 id - 참여자가 아니면 0 */
+        public long opponentOf(long userId) {
+            if (firstUserId == userId) return secondUserId;
+            if (secondUserId == userId) return firstUserId;
+            return 0L;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.ssafy.nanumi.common.cache;
+
+import com.ssafy.nanumi.common.window.SharingWindow;
+import com.ssafy.nanumi.common.window.SharingWindowChangedEvent;
+import com.ssafy.nanumi.common.window.SharingWindowProvider;
+import com.ssafy.nanumi.db.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RBucket;
+import org.redisson.api.RSet;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 동네(addressId) + 카테고리 + 나눔 구간 단위 피드 캐시.
+ * 같은 동네 사용자는 차단 필터링을 빼면 같은 피드를 보므로, 정렬된 상품 목록을 Redis 에 한 번만 만들어 공유한다.
+ * 상품이 바뀌면 동네 세대(generation) 번호를 올려서 해당 동네의 모든 캐시를 한 번에 무효화한다.
+ * 무효화 전에 읽은 목록이 늦게 저장돼도 이전 세대 key 에 들어가므로 다시 읽히지 않는다.
+ * 나눔 구간이 바뀌면 직전 구간에 피드를 만든 동네의 새 구간 피드를 미리 만들어, 기준 시각 직후 요청이 한꺼번에 DB 로 몰리지 않게 한다.
+ */
+@Slf4j
+@Component
+public class ProductFeedCache {
+    private static final String KEY_PREFIX = "feed:";
+    private static final String GENERATION_PREFIX = "feed:gen:";
+    private static final String ADDRESSES_PREFIX = "feed:addresses:"; // 구간별로 피드를 만든 동네
+    private static final String WARM_PREFIX = "feed:warm:";           // 구간별 워밍은 한 서버만
+    private static final String ALL_CATEGORY = "all";
+    private static final String ENTRY_DELIMITER = ";";
+    private static final long WINDOW_KEY_TTL_DAYS = 2;
+
+    private final RedissonClient redissonClient;
+    private final ProductRepository productRepository;
+    private final SharingWindowProvider sharingWindowProvider;
+    private final Executor warmExecutor;
+
+    public ProductFeedCache(RedissonClient redissonClient, ProductRepository productRepository, SharingWindowProvider sharingWindowProvider,
+                            @Qualifier("applicationTaskExecutor") Executor warmExecutor) {
+        this.redissonClient = redissonClient;
+        this.productRepository = productRepository;
+        this.sharingWindowProvider = sharingWindowProvider;
+        this.warmExecutor = warmExecutor;
+    }
+
+    /* 동네 전체 피드 (최신순) */
+    public List<ProductFeedEntry> getEntries(long addressId) {
+        return getEntries(addressId, null);
+    }
+
+    /* 카테고리 피드 (최신순) - categoryId 가 null 이면 전체 */
+    public List<ProductFeedEntry> getEntries(long addressId, Long categoryId) {
+        SharingWindow window = sharingWindowProvider.current();
+        long generation = redissonClient.getAtomicLong(GENERATION_PREFIX + addressId).get();
+        String key = KEY_PREFIX + windowKey(window) + ":" + addressId + ":" + generation + ":"
+                + (categoryId == null ? ALL_CATEGORY : categoryId);
+
+        RBucket<String> bucket = redissonClient.getBucket(key, StringCodec.INSTANCE);
+        String cached = bucket.get();
+        if (cached != null) {
+            return decode(cached);
+        }
+
+        List<ProductFeedEntry> entries = categoryId == null
+                ? productRepository.findFeedEntries(addressId, window.getStart())
+                : productRepository.findCategoryFeedEntries(addressId, categoryId, window.getStart());
+
+        // 구간이 끝나면 자연스럽게 만료
+        long ttl = Math.max(1, Duration.between(LocalDateTime.now(), window.getEnd()).toMillis());
+        bucket.set(encode(entries), ttl, TimeUnit.MILLISECONDS);
+        if (categoryId == null) {
+            rememberAddress(window, addressId);
+        }
+        return entries;
+    }
+
+    /* 새 구간 피드 미리 만들기 - 이벤트를 발행한 스레드 (스케줄러/요청) 를 막지 않도록 별도 스레드에서 */
+    @EventListener
+    public void onWindowChanged(SharingWindowChangedEvent event) {
+        String warmKey = WARM_PREFIX + windowKey(event.getCurrent());
+        if (!redissonClient.getBucket(warmKey, StringCodec.INSTANCE).trySet("1", WINDOW_KEY_TTL_DAYS, TimeUnit.DAYS)) {
+            return;
+        }
+        warmExecutor.execute(() -> warm(event.getPrevious(), event.getCurrent()));
+    }
+
+    private void warm(SharingWindow previous, SharingWindow current) {
+        Set<String> addressIds = redissonClient.<String>getSet(ADDRESSES_PREFIX + windowKey(previous), StringCodec.INSTANCE).readAll();
+        int warmed = 0;
+        for (String addressId : addressIds) {
+            // 그 사이 구간이 또 바뀌었으면 중단 - 다음 이벤트가 이어서 만든다
+            if (!sharingWindowProvider.current().equals(current)) {
+                break;
+            }
+            try {
+                getEntries(Long.parseLong(addressId));
+                warmed++;
+            } catch (Exception e) {
+                log.warn("product feed warm failed : {}", addressId, e);
+            }
+        }
+        log.info("product feed warmed for {} : {}/{} addresses", current.getStart(), warmed, addressIds.size());
+    }
+
+    private void rememberAddress(SharingWindow window, long addressId) {
+        try {
+            RSet<String> addresses = redissonClient.getSet(ADDRESSES_PREFIX + windowKey(window), StringCodec.INSTANCE);
+            if (addresses.add(String.valueOf(addressId))) {
+                addresses.expire(WINDOW_KEY_TTL_DAYS, TimeUnit.DAYS);
+            }
+        } catch (Exception e) {
+            log.warn("product feed address record failed : {}", addressId, e);
+        }
+    }
+
+    private String windowKey(SharingWindow window) {
+        return window.getStart().toLocalDate().toString();
+    }
+
+    /* 트랜잭션 커밋 이후 동네 피드 무효화 - 커밋 전 목록이 다시 캐시되는 것을 막는다 */
+    public void evictAfterCommit(long addressId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(addressId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict(addressId);
+            }
+        });
+    }
+
+    private void evict(long addressId) {
+        try {
+            redissonClient.getAtomicLong(GENERATION_PREFIX + addressId).incrementAndGet();
+        } catch (Exception e) {
+            log.warn("product feed evict failed : {}", addressId, e);
+        }
+    }
+
+    private String encode(List<ProductFeedEntry> entries) {
+        StringBuilder sb = new StringBuilder(entries.size() * 40);
+        for (ProductFeedEntry entry : entries) {
+            if (sb.length() > 0) sb.append(ENTRY_DELIMITER);
+            sb.append(entry.encode());
+        }
+        return sb.toString();
+    }
+
+    private List<ProductFeedEntry> decode(String value) {
+        if (value.isEmpty()) return Collections.emptyList();
+        String[] parts = value.split(ENTRY_DELIMITER);
+        List<ProductFeedEntry> entries = new ArrayList<>(parts.length);
+        for (String part : parts) {
+            entries.add(ProductFeedEntry.decode(part));
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,35 @@
+package com.ssafy.nanumi.common.cache;
+
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/* 피드 캐시 항목 - 정렬/커서/차단 필터링에 필요한 값만 보관 */
+@Getter
+public class ProductFeedEntry {
+    private final long productId;
+    private final long userId;
+    private final LocalDateTime createDate;
+
+    /* JPQL constructor expression 용 */
+    public ProductFeedEntry(long productId, long userId, LocalDateTime createDate) {
+        this.productId = productId;
+        this.userId = userId;
+        this.createDate = createDate;
+    }
+
+    /* 커서 (createDate, id) 이후 항목인지 - 최신순 정렬 기준 */
+    public boolean isAfter(LocalDateTime cursorDate, long cursorId) {
+        int compare = createDate.compareTo(cursorDate);
+        return compare < 0 || (compare == 0 && productId < cursorId);
+    }
+
+    String encode() {
+        return productId + "," + userId + "," + createDate;
+    }
+
+    static ProductFeedEntry decode(String value) {
+        String[] parts = value.split(",", 3);
+        return new ProductFeedEntry(Long.parseLong(parts[0]), Long.parseLong(parts[1]), LocalDateTime.parse(parts[2]));
+    }
+}
@@ -0,0 +1,49 @@
+package com.ssafy.nanumi.common.geo;
+
+/**
+ * 정수 geohash - 위도/경도 구간 index 의 비트를 번갈아 합친 long 값 (문자열 geohash 의 base32 변환 전 값과 같다).
+ * 셀 index 를 그대로 다룰 수 있어서 이웃 셀 계산이 문자열 없이 덧셈으로 끝난다.
+ */
+public final class GeoHash {
+    // 경도 18bit + 위도 17bit = 35bit (문자열 geohash 7자리, 약 153m x 153m)
+    public static final int LON_BITS = 18;
+    public static final int LAT_BITS = 17;
+
+    private static final long LAT_CELLS = 1L << LAT_BITS;
+    private static final long LON_CELLS = 1L << LON_BITS;
+
+    public static final double LAT_CELL_DEGREES = 180.0 / LAT_CELLS;
+    public static final double LON_CELL_DEGREES = 360.0 / LON_CELLS;
+
+    private GeoHash() {
+    }
+
+    public static int latIndex(double latitude) {
+        long index = (long) ((latitude + 90.0) / LAT_CELL_DEGREES);
+        return (int) Math.min(LAT_CELLS - 1, Math.max(0, index));
+    }
+
+    /* 경도는 날짜변경선에서 이어진다 */
+    public static int lonIndex(double longitude) {
+        long index = (long) Math.floor((longitude + 180.0) / LON_CELL_DEGREES);
+        return (int) Math.floorMod(index, LON_CELLS);
+    }
+
+    public static long encode(double latitude, double longitude) {
+        return cell(latIndex(latitude), lonIndex(longitude));
+    }
+
+    /* 셀 index -> geohash (경도 비트부터 번갈아) - 범위를 벗어난 위도는 -1 */
+    public static long cell(int latIndex, int lonIndex) {
+        if (latIndex < 0 || latIndex >= LAT_CELLS) return -1L;
+        long lon = Math.floorMod((long) lonIndex, LON_CELLS);
+        long hash = 0L;
+        for (int bit = LON_BITS - 1; bit >= 0; bit--) {
+            hash = (hash << 1) | ((lon >>> bit) & 1L);
+            if (bit > 0) {
+                hash = (hash << 1) | ((latIndex >>> (bit - 1)) & 1L);
+            }
+        }
+        return hash;
+    }
+}
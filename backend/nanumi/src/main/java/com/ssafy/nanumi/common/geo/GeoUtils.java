@@ -0,0 +1,39 @@
+package com.ssafy.nanumi.common.geo;
+
+/**
+ * 두 좌표 사이 거리 (미터).
+ * 가까운 거리 (위도/경도 차이 FAST_PATH_DEGREES 미만, 약 10km) 는 equirectangular 근사로 cos 한 번과 sqrt 한 번에 계산하고,
+ * 먼 거리만 haversine 으로 계산한다. haversine 과의 차이는 약속 장소 판정 거리 (100m) 에서 1mm 미만, 10km 에서도 1cm 미만이다 (GeoUtilsTest).
+ */
+public final class GeoUtils {
+    public static final double EARTH_RADIUS_METERS = 6_371_000.0;
+    private static final double FAST_PATH_DEGREES = 0.1;
+
+    private GeoUtils() {
+    }
+
+    public static double distance(double lat1, double lon1, double lat2, double lon2) {
+        double latDelta = lat2 - lat1;
+        double lonDelta = lon2 - lon1;
+        if (Math.abs(latDelta) < FAST_PATH_DEGREES && Math.abs(lonDelta) < FAST_PATH_DEGREES) {
+            return equirectangular(lat1, lat2, latDelta, lonDelta);
+        }
+        return haversine(lat1, lon1, lat2, lon2);
+    }
+
+    /* 경도 차이를 두 지점 평균 위도의 cos 로 줄여서 평면 거리로 계산 */
+    static double equirectangular(double lat1, double lat2, double latDelta, double lonDelta) {
+        double x = Math.toRadians(lonDelta) * Math.cos(Math.toRadians((lat1 + lat2) / 2));
+        double y = Math.toRadians(latDelta);
+        return EARTH_RADIUS_METERS * Math.sqrt(x * x + y * y);
+    }
+
+    public static double haversine(double lat1, double lon1, double lat2, double lon2) {
+        double latDistance = Math.toRadians(lat2 - lat1);
+        double lonDistance = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(lonDistance / 2) * Math.sin(lonDistance / 2);
+        return EARTH_RADIUS_METERS * 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+}
@@ -0,0 +1,116 @@
+package com.ssafy.nanumi.common.geo;
+
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 실시간 위치 공간 index (메모리).
+ * 세션별 마지막 위치와 geohash 셀 -> 세션 목록을 함께 관리해서,
+ * "이 지점에서 N 미터 안에 있는 사용자" 조회를 반경을 덮는 셀만 확인하는 것으로 끝낸다.
+ * 셀이 바뀔 때만 셀 목록을 수정하므로 같은 셀 안에서 움직이는 갱신은 map put 한 번이다.
+ */
+@Component
+public class LocationGrid {
+    private static final double METERS_PER_DEGREE = 111_320.0;
+
+    private final Map<String, TrackedLocation> locations = new ConcurrentHashMap<>();
+    private final Map<Long, Set<String>> cells = new ConcurrentHashMap<>();
+
+    /* 위치 갱신 - 이전 위치 반환 (없으면 null) */
+    public TrackedLocation update(TrackedLocation location) {
+        TrackedLocation[] previous = new TrackedLocation[1];
+        // 같은 세션의 갱신이 동시에 들어와도 셀 목록이 어긋나지 않도록 세션 단위로 처리
+        locations.compute(location.getSessionId(), (sessionId, before) -> {
+            previous[0] = before;
+            if (before == null || before.getCell() != location.getCell()) {
+                addToCell(location.getCell(), sessionId);
+                if (before != null) {
+                    removeFromCell(before.getCell(), sessionId);
+                }
+            }
+            return location;
+        });
+        return previous[0];
+    }
+
+    public TrackedLocation get(String sessionId) {
+        return locations.get(sessionId);
+    }
+
+    public TrackedLocation remove(String sessionId) {
+        TrackedLocation[] removed = new TrackedLocation[1];
+        locations.computeIfPresent(sessionId, (id, before) -> {
+            removed[0] = before;
+            removeFromCell(before.getCell(), id);
+            return null;
+        });
+        return removed[0];
+    }
+
+    public Collection<TrackedLocation> all() {
+        return Collections.unmodifiableCollection(locations.values());
+    }
+
+    public int size() {
+        return locations.size();
+    }
+
+    /* 반경 안의 위치 - 가까운 순 */
+    public List<NearbyLocation> findWithin(double latitude, double longitude, double meters) {
+        double latDelta = meters / METERS_PER_DEGREE;
+        double lonDelta = meters / (METERS_PER_DEGREE * Math.max(Math.cos(Math.toRadians(latitude)), 1e-6));
+
+        int latFrom = GeoHash.latIndex(latitude - latDelta);
+        int latTo = GeoHash.latIndex(latitude + latDelta);
+        long lonSpan = (long) Math.ceil(2 * lonDelta / GeoHash.LON_CELL_DEGREES) + 1;
+        long cellCount = (long) (latTo - latFrom + 1) * lonSpan;
+
+        List<NearbyLocation> result = new ArrayList<>();
+        if (cellCount > cells.size() || lonSpan >= (1L << GeoHash.LON_BITS)) {
+            // 반경이 넓어서 확인할 셀이 사용 중인 셀보다 많으면 전체를 훑는 편이 빠르다
+            for (TrackedLocation location : locations.values()) {
+                collect(location, latitude, longitude, meters, result);
+            }
+        } else {
+            int lonFrom = GeoHash.lonIndex(longitude - lonDelta);
+            for (int lat = latFrom; lat <= latTo; lat++) {
+                for (long lon = 0; lon < lonSpan; lon++) {
+                    Set<String> sessionIds = cells.get(GeoHash.cell(lat, (int) (lonFrom + lon)));
+                    if (sessionIds == null) continue;
+                    for (String sessionId : sessionIds) {
+                        TrackedLocation location = locations.get(sessionId);
+                        if (location != null) {
+                            collect(location, latitude, longitude, meters, result);
+                        }
+                    }
+                }
+            }
+        }
+        result.sort(Comparator.comparingDouble(NearbyLocation::getDistance));
+        return result;
+    }
+
+    private void collect(TrackedLocation location, double latitude, double longitude, double meters, List<NearbyLocation> result) {
+        double distance = GeoUtils.distance(latitude, longitude, location.getLatitude(), location.getLongitude());
+        if (distance <= meters) {
+            result.add(new NearbyLocation(location, distance));
+        }
+    }
+
+    private void addToCell(long cell, String sessionId) {
+        cells.compute(cell, (key, sessionIds) -> {
+            Set<String> set = sessionIds == null ? ConcurrentHashMap.newKeySet() : sessionIds;
+            set.add(sessionId);
+            return set;
+        });
+    }
+
+    private void removeFromCell(long cell, String sessionId) {
+        cells.computeIfPresent(cell, (key, sessionIds) -> {
+            sessionIds.remove(sessionId);
+            return sessionIds.isEmpty() ? null : sessionIds;
+        });
+    }
+}
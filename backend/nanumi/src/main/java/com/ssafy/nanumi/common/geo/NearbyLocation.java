@@ -0,0 +1,20 @@
+package com.ssafy.nanumi.common.geo;
+
+import lombok.Getter;
+
+@Getter
+public class NearbyLocation {
+    private final long userId;
+    private final long chatRoomSeq;
+    private final double latitude;
+    private final double longitude;
+    private final double distance; // 미터
+
+    public NearbyLocation(TrackedLocation location, double distance) {
+        this.userId = location.getUserId();
+        this.chatRoomSeq = location.getChatRoomSeq();
+        this.latitude = location.getLatitude();
+        this.longitude = location.getLongitude();
+        this.distance = distance;
+    }
+}
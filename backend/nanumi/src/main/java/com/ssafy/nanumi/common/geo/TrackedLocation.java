@@ -0,0 +1,25 @@
+package com.ssafy.nanumi.common.geo;
+
+import lombok.Getter;
+
+/* 세션별 마지막 위치 (불변) - 갱신할 때마다 새 객체로 교체한다 */
+@Getter
+public class TrackedLocation {
+    private final String sessionId;
+    private final long userId;
+    private final long chatRoomSeq;
+    private final double latitude;
+    private final double longitude;
+    private final long updatedAt; // epoch millis
+    private final long cell;      // GeoHash
+
+    public TrackedLocation(String sessionId, long userId, long chatRoomSeq, double latitude, double longitude, long updatedAt) {
+        this.sessionId = sessionId;
+        this.userId = userId;
+        this.chatRoomSeq = chatRoomSeq;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.updatedAt = updatedAt;
+        this.cell = GeoHash.encode(latitude, longitude);
+    }
+}
@@ -0,0 +1,12 @@
+package com.ssafy.nanumi.common.image;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public class EncodedImage {
+    private final byte[] bytes;
+    private final String contentType;
+    private final String extension;
+}
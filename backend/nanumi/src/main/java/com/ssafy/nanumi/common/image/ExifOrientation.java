@@ -0,0 +1,113 @@
+package com.ssafy.nanumi.common.image;
+
+import java.awt.geom.AffineTransform;
+
+/**
+ * JPEG EXIF Orientation 태그 (0x0112) 읽기.
+ * 휴대폰 사진은 센서 방향 그대로 저장되고 이 태그로 회전/반전을 표시하므로, 변환본을 만들기 전에 적용해야 한다.
+ * APP1 (Exif) 세그먼트의 IFD0 만 읽으며, 태그가 없거나 형식이 맞지 않으면 1 (그대로) 을 반환한다.
+ */
+public final class ExifOrientation {
+    public static final int NORMAL = 1;
+
+    private static final int TAG_ORIENTATION = 0x0112;
+    private static final int TYPE_SHORT = 3;
+
+    private ExifOrientation() {
+    }
+
+    public static int read(byte[] jpeg) {
+        if (jpeg.length < 4 || u8(jpeg, 0) != 0xFF || u8(jpeg, 1) != 0xD8) {
+            return NORMAL;
+        }
+        int pos = 2;
+        while (pos + 4 <= jpeg.length) {
+            if (u8(jpeg, pos) != 0xFF) {
+                return NORMAL;
+            }
+            int marker = u8(jpeg, pos + 1);
+            if (marker == 0xFF) { // 채움 바이트
+                pos++;
+                continue;
+            }
+            if (marker == 0xDA || marker == 0xD9) { // 이미지 데이터 시작 - 이후에는 EXIF 가 없다
+                return NORMAL;
+            }
+            int length = (u8(jpeg, pos + 2) << 8) | u8(jpeg, pos + 3);
+            if (marker == 0xE1 && isExif(jpeg, pos + 4)) {
+                return readTiff(jpeg, pos + 10, pos + 2 + length);
+            }
+            pos += 2 + length;
+        }
+        return NORMAL;
+    }
+
+    /* 5 ~ 8 은 가로/세로가 바뀐다 */
+    public static boolean swapsDimensions(int orientation) {
+        return orientation >= 5 && orientation <= 8;
+    }
+
+    /* 원본 (width x height) 좌표를 보이는 방향으로 옮기는 변환 */
+    public static AffineTransform transform(int orientation, int width, int height) {
+        switch (orientation) {
+            case 2: return new AffineTransform(-1, 0, 0, 1, width, 0);   // 좌우 반전
+            case 3: return new AffineTransform(-1, 0, 0, -1, width, height); // 180도
+            case 4: return new AffineTransform(1, 0, 0, -1, 0, height);  // 상하 반전
+            case 5: return new AffineTransform(0, 1, 1, 0, 0, 0);        // 대각선 반전
+            case 6: return new AffineTransform(0, 1, -1, 0, height, 0);  // 시계 방향 90도
+            case 7: return new AffineTransform(0, -1, -1, 0, height, width);
+            case 8: return new AffineTransform(0, -1, 1, 0, 0, width);   // 반시계 방향 90도
+            default: return new AffineTransform();
+        }
+    }
+
+    private static boolean isExif(byte[] b, int pos) {
+        return pos + 6 <= b.length && b[pos] == 'E' && b[pos + 1] == 'x' && b[pos + 2] == 'i' && b[pos + 3] == 'f'
+                && b[pos + 4] == 0 && b[pos + 5] == 0;
+    }
+
+    private static int readTiff(byte[] b, int tiff, int end) {
+        end = Math.min(end, b.length);
+        if (tiff + 8 > end) {
+            return NORMAL;
+        }
+        boolean little;
+        if (b[tiff] == 'I' && b[tiff + 1] == 'I') {
+            little = true;
+        } else if (b[tiff] == 'M' && b[tiff + 1] == 'M') {
+            little = false;
+        } else {
+            return NORMAL;
+        }
+        long ifd = tiff + u32(b, tiff + 4, little);
+        if (ifd + 2 > end) {
+            return NORMAL;
+        }
+        int count = u16(b, (int) ifd, little);
+        for (int i = 0; i < count; i++) {
+            int entry = (int) ifd + 2 + i * 12;
+            if (entry + 12 > end) {
+                return NORMAL;
+            }
+            if (u16(b, entry, little) == TAG_ORIENTATION && u16(b, entry + 2, little) == TYPE_SHORT) {
+                int orientation = u16(b, entry + 8, little);
+                return orientation >= 1 && orientation <= 8 ? orientation : NORMAL;
+            }
+        }
+        return NORMAL;
+    }
+
+    private static int u8(byte[] b, int pos) {
+        return b[pos] & 0xFF;
+    }
+
+    private static int u16(byte[] b, int pos, boolean little) {
+        return little ? u8(b, pos) | (u8(b, pos + 1) << 8) : (u8(b, pos) << 8) | u8(b, pos + 1);
+    }
+
+    private static long u32(byte[] b, int pos, boolean little) {
+        return little
+                ? (long) u16(b, pos, true) | ((long) u16(b, pos + 2, true) << 16)
+                : ((long) u16(b, pos, false) << 16) | u16(b, pos + 2, false);
+    }
+}
@@ -0,0 +1,16 @@
+package com.ssafy.nanumi.common.image;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/* 업로드 이미지 변환 크기 - 원본은 별도로 그대로 저장한다 */
+@Getter
+@RequiredArgsConstructor
+public enum ImageVariant {
+    DETAIL("detail", 1080, 0.85f),     // 상세 페이지
+    THUMBNAIL("thumb", 320, 0.75f);    // 피드 목록
+
+    private final String suffix;
+    private final int maxWidth;
+    private final float quality;
+}
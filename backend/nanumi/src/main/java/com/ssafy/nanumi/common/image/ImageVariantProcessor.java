@@ -0,0 +1,171 @@
+package com.ssafy.nanumi.common.image;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.*;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * 업로드 이미지를 한 번만 디코딩해서 상세/썸네일 크기로 변환한다.
+ * 큰 이미지는 디코딩 단계에서 subsampling 으로 읽어 메모리와 시간을 줄이고,
+ * 큰 변환본부터 작은 변환본 순서로 이어서 줄인다. EXIF Orientation 은 축소 전에 적용한다.
+ * 출력은 progressive JPEG 이며, WebP ImageIO 플러그인이 있고 설정이 켜져 있으면 WebP 로 저장한다.
+ */
+@Component
+public class ImageVariantProcessor {
+    private static final String JPEG = "jpeg";
+    private static final String WEBP = "webp";
+
+    @Value("${nanumi.image.webp-enabled:false}")
+    private boolean webpEnabled;
+
+    /* 변환본 생성 - 디코딩할 수 없는 형식이면 빈 Map 을 반환한다 (원본만 저장) */
+    public Map<ImageVariant, EncodedImage> process(byte[] original) throws IOException {
+        Map<ImageVariant, EncodedImage> variants = new EnumMap<>(ImageVariant.class);
+
+        BufferedImage source = decode(original, ImageVariant.DETAIL.getMaxWidth());
+        if (source == null) {
+            return variants;
+        }
+
+        // DETAIL -> THUMBNAIL 순서로 앞 단계 결과를 이어서 축소
+        BufferedImage current = source;
+        for (ImageVariant variant : ImageVariant.values()) {
+            current = scaleToWidth(current, variant.getMaxWidth());
+            variants.put(variant, encode(current, variant.getQuality()));
+        }
+        return variants;
+    }
+
+    /* 단일 변환본만 필요할 때 (프로필 이미지 등) */
+    public EncodedImage process(byte[] original, ImageVariant variant) throws IOException {
+        BufferedImage source = decode(original, variant.getMaxWidth());
+        if (source == null) {
+            return null;
+        }
+        return encode(scaleToWidth(source, variant.getMaxWidth()), variant.getQuality());
+    }
+
+    /* 보이는 방향 (EXIF Orientation 적용) 의 RGB 이미지로 디코딩 */
+    BufferedImage decode(byte[] bytes, int targetWidth) throws IOException {
+        int orientation = ExifOrientation.read(bytes);
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(bytes))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                ImageReadParam param = reader.getDefaultReadParam();
+                // 목표 크기의 2배 이상을 유지하는 선에서 subsampling - 이후 부드럽게 축소해도 화질 손실이 없다
+                // 90도 회전 사진은 원본 높이가 보이는 너비가 된다
+                int displayWidth = ExifOrientation.swapsDimensions(orientation) ? reader.getHeight(0) : reader.getWidth(0);
+                int subsampling = displayWidth / (targetWidth * 2);
+                if (subsampling > 1) {
+                    param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                }
+                return orient(toRgb(reader.read(0, param)), orientation);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /* EXIF Orientation 에 따라 회전/반전 */
+    private BufferedImage orient(BufferedImage image, int orientation) {
+        if (orientation == ExifOrientation.NORMAL) {
+            return image;
+        }
+        int width = image.getWidth();
+        int height = image.getHeight();
+        boolean swap = ExifOrientation.swapsDimensions(orientation);
+        BufferedImage oriented = new BufferedImage(swap ? height : width, swap ? width : height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = oriented.createGraphics();
+        graphics.drawImage(image, ExifOrientation.transform(orientation, width, height), null);
+        graphics.dispose();
+        return oriented;
+    }
+
+    /* 알파 채널 제거 (JPEG 저장용, 투명 영역은 흰색) */
+    private BufferedImage toRgb(BufferedImage image) {
+        if (image.getType() == BufferedImage.TYPE_INT_RGB) {
+            return image;
+        }
+        BufferedImage rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = rgb.createGraphics();
+        graphics.setColor(Color.WHITE);
+        graphics.fillRect(0, 0, image.getWidth(), image.getHeight());
+        graphics.drawImage(image, 0, 0, null);
+        graphics.dispose();
+        return rgb;
+    }
+
+    /* 비율 유지 축소 - 절반씩 나눠 줄여서 bilinear 로도 계단 현상이 없도록 한다 */
+    private BufferedImage scaleToWidth(BufferedImage image, int maxWidth) {
+        int originWidth = image.getWidth();
+        int originHeight = image.getHeight();
+        if (originWidth <= maxWidth) {
+            return image;
+        }
+
+        BufferedImage current = image;
+        int width = originWidth;
+        while (width > maxWidth) {
+            width = Math.max(maxWidth, width / 2);
+            int height = Math.max(1, (int) ((long) originHeight * width / originWidth));
+
+            BufferedImage next = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = next.createGraphics();
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(current, 0, 0, width, height, null);
+            graphics.dispose();
+            current = next;
+        }
+        return current;
+    }
+
+    private EncodedImage encode(BufferedImage image, float quality) throws IOException {
+        if (webpEnabled) {
+            Iterator<ImageWriter> webpWriters = ImageIO.getImageWritersByFormatName(WEBP);
+            if (webpWriters.hasNext()) {
+                return new EncodedImage(write(webpWriters.next(), image, quality, false), "image/webp", WEBP);
+            }
+        }
+        ImageWriter writer = ImageIO.getImageWritersByFormatName(JPEG).next();
+        return new EncodedImage(write(writer, image, quality, true), "image/jpeg", "jpg");
+    }
+
+    private byte[] write(ImageWriter writer, BufferedImage image, float quality, boolean progressive) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(baos)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (param.canWriteCompressed()) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                if (param.getCompressionType() == null && param.getCompressionTypes() != null) {
+                    param.setCompressionType(param.getCompressionTypes()[0]);
+                }
+                param.setCompressionQuality(quality);
+            }
+            if (progressive && param.canWriteProgressive()) {
+                param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+            }
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return baos.toByteArray();
+    }
+}
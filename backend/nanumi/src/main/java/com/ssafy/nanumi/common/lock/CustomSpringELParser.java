@@ -1,19 +1,25 @@
 package com.ssafy.nanumi.common.lock;
 
+import org.springframework.expression.Expression;
 import org.springframework.expression.ExpressionParser;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 public class CustomSpringELParser {
+    private static final ExpressionParser PARSER = new SpelExpressionParser();
+    // 어노테이션 key 는 메서드마다 고정이므로 한 번만 파싱한다
+    private static final Map<String, Expression> EXPRESSIONS = new ConcurrentHashMap<>();
+
     public static Object getDynamicValue(String[] parameterNames, Object[] args, String key) {
-        ExpressionParser parser = new SpelExpressionParser();
         StandardEvaluationContext context = new StandardEvaluationContext();
 
         for (int i = 0; i < parameterNames.length; i++) {
             context.setVariable(parameterNames[i], args[i]);
         }
 
-        return parser.parseExpression(key).getValue(context, Object.class);
+        return EXPRESSIONS.computeIfAbsent(key, PARSER::parseExpression).getValue(context, Object.class);
     }
 }
-
@@ -11,6 +11,7 @@ import java.util.concurrent.TimeUnit;
 /* 커스텀 인터 페이스 */
 public @interface DistributeLock {
     String key(); // 락 이름
+    LockMode mode() default LockMode.REENTRANT; // 락 종류
     TimeUnit timeUnit() default TimeUnit.SECONDS; // 시간 단위
     long waitTime() default 5L; // 락 획득 대기 시간
     long leaseTime() default 3L; // 락 임대 시간
@@ -1,5 +1,10 @@
 package com.ssafy.nanumi.common.lock;
 
+import com.ssafy.nanumi.config.response.exception.CustomException;
+import com.ssafy.nanumi.config.response.exception.CustomExceptionStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
@@ -11,16 +16,27 @@ import org.redisson.api.RedissonClient;
 import org.springframework.stereotype.Component;
 
 import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * DistributeLock 처리.
+ * 락 획득 대기/보유 시간은 histogram, 즉시 획득하지 못한 횟수 (FAIR 는 기다려서 획득한 횟수) 와 대기 시간 초과는 counter 로 기록한다.
+ * metric tag 는 어노테이션 key 식(해석 전 값)을 사용해서 상품 id 등으로 tag 가 늘어나지 않도록 한다.
+ */
 @Aspect
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class DistributeLockAop {
     private static final String REDISSON_KEY_PREFIX = "RLOCK_";
+    private static final String FENCE_SUFFIX = ":fence";
+    private static final int SPIN_ATTEMPTS = 3;
+    private static final long SPIN_BACKOFF_MILLIS = 10;
+    private static final long CONTENDED_MILLIS = 5; // 경합이 없으면 script 한 번 (수 ms 안) 에 획득한다
 
     private final RedissonClient redissonClient;
     private final AopForTransaction aopForTransaction;
+    private final MeterRegistry meterRegistry;
 
 
     //    @Around("@annotation(com.ssafy.nanumi.common.lock.DistributeLock)")
@@ -31,23 +47,109 @@ public class DistributeLockAop {
         DistributeLock distributeLock = method.getAnnotation(DistributeLock.class);
 
         String key = REDISSON_KEY_PREFIX + CustomSpringELParser.getDynamicValue(signature.getParameterNames(), joinPoint.getArgs(), distributeLock.key());
+        String metricKey = distributeLock.key();
+        String mode = distributeLock.mode().name();
 
-        RLock rLock = redissonClient.getLock(key);
+        RLock rLock = getLock(key, distributeLock.mode());
+        long waitMillis = distributeLock.timeUnit().toMillis(distributeLock.waitTime());
+        long leaseMillis = distributeLock.timeUnit().toMillis(distributeLock.leaseTime());
 
+        long waitStart = System.nanoTime();
+        boolean available;
         try {
-            boolean available = rLock.tryLock(distributeLock.waitTime(), distributeLock.leaseTime(), distributeLock.timeUnit());
-            if (!available) {
-                return false;
-            }
+            available = acquire(rLock, distributeLock.mode(), waitMillis, leaseMillis, metricKey, mode);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw e;
+        }
+        timer("nanumi.lock.wait", metricKey, mode, available ? "acquired" : "timeout")
+                .record(System.nanoTime() - waitStart, TimeUnit.NANOSECONDS);
 
-            log.info("get lock success {}" , key);
+        if (!available) {
+            counter("nanumi.lock.timeout", metricKey, mode).increment();
+            throw new CustomException(CustomExceptionStatus.LOCK_ACQUIRE_TIMEOUT);
+        }
+
+        long holdStart = System.nanoTime();
+        // 다른 FENCED 락 안에서 중첩 호출될 수 있으므로 바깥 token 을 복원한다
+        Long outerToken = FencingToken.current();
+        try {
+            if (distributeLock.mode() == LockMode.FENCED) {
+                FencingToken.set(redissonClient.getAtomicLong(key + FENCE_SUFFIX).incrementAndGet());
+            }
             return aopForTransaction.proceed(joinPoint);
-        } catch (Exception e) {
-            Thread.currentThread().interrupt();
-            throw new InterruptedException();
         } finally {
-            rLock.unlock();
+            FencingToken.set(outerToken);
+            timer("nanumi.lock.hold", metricKey, mode, "released")
+                    .record(System.nanoTime() - holdStart, TimeUnit.NANOSECONDS);
+            // lease 가 먼저 만료되면 다른 스레드가 잡은 락을 풀지 않도록 보유 여부를 확인한다
+            if (rLock.isHeldByCurrentThread()) {
+                rLock.unlock();
+            } else {
+                counter("nanumi.lock.lease.expired", metricKey, mode).increment();
+                log.warn("lock lease expired before release {}", key);
+            }
         }
     }
-}
 
+    private RLock getLock(String key, LockMode mode) {
+        switch (mode) {
+            case FAIR:
+                return redissonClient.getFairLock(key);
+            case READ:
+                return redissonClient.getReadWriteLock(key).readLock();
+            case WRITE:
+                return redissonClient.getReadWriteLock(key).writeLock();
+            default:
+                return redissonClient.getLock(key);
+        }
+    }
+
+    /* 즉시 획득을 먼저 시도하고, 실패하면 경합으로 기록한 뒤 대기한다 */
+    private boolean acquire(RLock rLock, LockMode mode, long waitMillis, long leaseMillis, String metricKey, String modeTag) throws InterruptedException {
+        if (mode == LockMode.FAIR) {
+            // 요청 순서가 목적이므로 대기열 밖에서 먼저 시도하지 않고 바로 줄을 선다 - 경합은 기다린 시간으로 판단한다
+            long start = System.nanoTime();
+            boolean acquired = rLock.tryLock(waitMillis, leaseMillis, TimeUnit.MILLISECONDS);
+            if (!acquired || System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(CONTENDED_MILLIS)) {
+                counter("nanumi.lock.contention", metricKey, modeTag).increment();
+            }
+            return acquired;
+        }
+
+        if (rLock.tryLock(0, leaseMillis, TimeUnit.MILLISECONDS)) {
+            return true;
+        }
+        counter("nanumi.lock.contention", metricKey, modeTag).increment();
+
+        long deadline = System.currentTimeMillis() + waitMillis;
+        if (mode == LockMode.SPIN) {
+            // 짧은 임계 구역은 pub/sub 대기보다 몇 번 재시도하는 편이 빠르다
+            for (int i = 0; i < SPIN_ATTEMPTS && System.currentTimeMillis() < deadline; i++) {
+                Thread.sleep(SPIN_BACKOFF_MILLIS << i);
+                if (rLock.tryLock(0, leaseMillis, TimeUnit.MILLISECONDS)) {
+                    return true;
+                }
+            }
+        }
+
+        long remaining = deadline - System.currentTimeMillis();
+        return remaining > 0 && rLock.tryLock(remaining, leaseMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private Timer timer(String name, String key, String mode, String result) {
+        return Timer.builder(name)
+                .tag("key", key)
+                .tag("mode", mode)
+                .tag("result", result)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private Counter counter(String name, String key, String mode) {
+        return Counter.builder(name)
+                .tag("key", key)
+                .tag("mode", mode)
+                .register(meterRegistry);
+    }
+}
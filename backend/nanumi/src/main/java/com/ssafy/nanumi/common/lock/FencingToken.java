@@ -0,0 +1,22 @@
+package com.ssafy.nanumi.common.lock;
+
+/* FENCED 락 구간에서 발급된 token - 저장소에 함께 기록해서 lease 만료 후 늦게 도착한 쓰기를 거를 때 사용 */
+public final class FencingToken {
+    private static final ThreadLocal<Long> CURRENT = new ThreadLocal<>();
+
+    private FencingToken() {
+    }
+
+    /* 현재 스레드가 잡고 있는 FENCED 락의 token (없으면 null) */
+    public static Long current() {
+        return CURRENT.get();
+    }
+
+    static void set(Long token) {
+        if (token == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(token);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.ssafy.nanumi.common.lock;
+
+/* 분산 락 종류 */
+public enum LockMode {
+    REENTRANT,  // 기본 재진입 락
+    FAIR,       // 요청 순서대로 획득
+    READ,       // 읽기 락 - 같은 key 의 WRITE 와 배타적, READ 끼리는 공유
+    WRITE,      // 쓰기 락
+    SPIN,       // 짧게 재시도한 뒤 대기 (임계 구역이 아주 짧을 때)
+    FENCED      // 획득할 때마다 증가하는 fencing token 발급 (FencingToken.current())
+}
@@ -0,0 +1,39 @@
+package com.ssafy.nanumi.common.search;
+
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * 한글 상품명/내용 검색용 bi-gram 토크나이저.
+ * 글자/숫자가 아닌 문자로 단어를 나누고, 각 단어를 2글자씩 잘라 토큰을 만든다.
+ * 한 글자 단어는 토큰으로 만들지 않는다 - 검색어에 섞이면 그 글자 하나로만 된 단어를 가진 상품만 남기 때문.
+ */
+public final class NgramTokenizer {
+    private static final Pattern SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private NgramTokenizer() {
+    }
+
+    public static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String word : SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (word.length() < 2) {
+                continue;
+            }
+            for (int i = 0; i + 2 <= word.length(); i++) {
+                tokens.add(word.substring(i, i + 2));
+            }
+        }
+        return tokens;
+    }
+
+    /* 두 글자 이상인 단어가 있어야 bi-gram 색인으로 찾을 수 있다 (한 글자 단어만 있으면 LIKE 검색) */
+    public static boolean isIndexable(String text) {
+        return !tokenize(text).isEmpty();
+    }
+}
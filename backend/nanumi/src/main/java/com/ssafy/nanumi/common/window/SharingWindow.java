@@ -0,0 +1,32 @@
+package com.ssafy.nanumi.common.window;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/* 하루 단위 나눔 구간 [start, end) - 기준 시각(기본 11:30)에 다음 구간으로 넘어간다 */
+@Getter
+@ToString
+@EqualsAndHashCode
+@RequiredArgsConstructor
+public class SharingWindow {
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+
+    /* now 가 속한 구간 - 기준 시각 이전이면 전날 기준 시각부터 */
+    public static SharingWindow of(LocalDateTime now, LocalTime boundary) {
+        LocalDateTime start = LocalDateTime.of(now.toLocalDate(), boundary);
+        if (now.toLocalTime().isBefore(boundary)) {
+            start = start.minusDays(1);
+        }
+        return new SharingWindow(start, start.plusDays(1));
+    }
+
+    public boolean contains(LocalDateTime dateTime) {
+        return !dateTime.isBefore(start) && dateTime.isBefore(end);
+    }
+}
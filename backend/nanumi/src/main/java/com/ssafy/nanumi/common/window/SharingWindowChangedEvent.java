@@ -0,0 +1,12 @@
+package com.ssafy.nanumi.common.window;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/* 나눔 구간이 바뀌었을 때 발행 - 구간별 캐시 정리/워밍에 사용 */
+@Getter
+@RequiredArgsConstructor
+public class SharingWindowChangedEvent {
+    private final SharingWindow previous;
+    private final SharingWindow current;
+}
@@ -0,0 +1,83 @@
+package com.ssafy.nanumi.common.window;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.support.CronTrigger;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * 현재 나눔 구간을 한 번만 계산해서 모든 서비스가 공유한다.
+ * 기준 시각 (nanumi.sharing-window.boundary) 에 맞춘 cron 으로 다음 구간으로 넘기고 SharingWindowChangedEvent 를 발행한다.
+ * cron 은 기준 시각에서 만들어서 둘이 따로 설정되어 어긋나지 않게 한다.
+ * 스케줄이 늦거나 누락돼도 조회 시점에 구간이 끝났으면 그 자리에서 넘긴다.
+ */
+@Slf4j
+@Component
+public class SharingWindowProvider {
+    private final ApplicationEventPublisher eventPublisher;
+    private final TaskScheduler taskScheduler;
+    private final LocalTime boundary;
+
+    private volatile SharingWindow current;
+
+    public SharingWindowProvider(ApplicationEventPublisher eventPublisher,
+                                 @Qualifier("taskScheduler") TaskScheduler taskScheduler,
+                                 @Value("${nanumi.sharing-window.boundary:11:30}") String boundary) {
+        this.eventPublisher = eventPublisher;
+        this.taskScheduler = taskScheduler;
+        this.boundary = LocalTime.parse(boundary);
+        this.current = SharingWindow.of(LocalDateTime.now(), this.boundary);
+    }
+
+    /* 현재 구간 - 구간이 지났을 때만 다시 계산한다 */
+    public SharingWindow current() {
+        SharingWindow window = current;
+        if (!LocalDateTime.now().isBefore(window.getEnd())) {
+            window = roll();
+        }
+        return window;
+    }
+
+    /* 피드 조회 기준 시각 (구간 시작) */
+    public LocalDateTime cutoffDateTime() {
+        return current().getStart();
+    }
+
+    @PostConstruct
+    void scheduleBoundary() {
+        taskScheduler.schedule(this::onBoundary, new CronTrigger(boundaryCron(boundary)));
+    }
+
+    public void onBoundary() {
+        roll();
+    }
+
+    /* 매일 기준 시각 - 예) 11:30 -> "0 30 11 * * *" */
+    static String boundaryCron(LocalTime boundary) {
+        return boundary.getSecond() + " " + boundary.getMinute() + " " + boundary.getHour() + " * * *";
+    }
+
+    /* 구간 교체만 잠금 안에서 하고, 이벤트는 잠금 밖에서 발행한다 (리스너가 오래 걸려도 다른 조회를 막지 않도록) */
+    private SharingWindow roll() {
+        SharingWindowChangedEvent event;
+        synchronized (this) {
+            SharingWindow previous = current;
+            SharingWindow next = SharingWindow.of(LocalDateTime.now(), boundary);
+            if (next.equals(previous)) {
+                return previous;
+            }
+            current = next;
+            event = new SharingWindowChangedEvent(previous, next);
+        }
+        log.info("sharing window changed : {} -> {}", event.getPrevious().getStart(), event.getCurrent().getStart());
+        eventPublisher.publishEvent(event);
+        return event.getCurrent();
+    }
+}
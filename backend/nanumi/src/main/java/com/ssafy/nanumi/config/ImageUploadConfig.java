@@ -0,0 +1,31 @@
+package com.ssafy.nanumi.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class ImageUploadConfig {
+    @Value("${nanumi.image-upload.pool-size:8}")
+    private int poolSize;
+
+    @Value("${nanumi.image-upload.queue-capacity:100}")
+    private int queueCapacity;
+
+    /* S3 이미지 업로드 전용 스레드풀 - 큐가 가득 차면 요청 스레드에서 직접 업로드한다 */
+    @Bean
+    public ThreadPoolTaskExecutor imageUploadExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("image-upload-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,42 @@
+package com.ssafy.nanumi.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class LocationConfig {
+    @Value("${nanumi.location.pool-size:4}")
+    private int poolSize;
+
+    @Value("${nanumi.location.queue-capacity:10000}")
+    private int queueCapacity;
+
+    /* 위치 갱신 처리 전용 스레드풀 - 세션당 대기 작업은 최대 하나 (최신 위치로 합쳐짐) */
+    @Bean
+    public ThreadPoolTaskExecutor locationExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("location-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /* 도착 알림 (FCM) 전용 - 위치 처리 스레드가 푸시 전송을 기다리지 않도록 */
+    @Bean
+    public ThreadPoolTaskExecutor arrivalPushExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(1000);
+        executor.setThreadNamePrefix("arrival-push-");
+        executor.initialize();
+        return executor;
+    }
+}
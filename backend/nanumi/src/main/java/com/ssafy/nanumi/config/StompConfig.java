@@ -1,30 +1,66 @@
 package com.ssafy.nanumi.config;
 
-import lombok.RequiredArgsConstructor;
+import com.ssafy.nanumi.config.stomp.RedisBrokerRelay;
+import com.ssafy.nanumi.config.stomp.StompSessionRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.event.EventListener;
 import org.springframework.messaging.simp.SimpAttributesContextHolder;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
 import org.springframework.web.socket.messaging.*;
 
+@Slf4j
 @Configuration
-@RequiredArgsConstructor
 @EnableWebSocketMessageBroker // 웹소켓 브로커 사용 설정
 public class StompConfig implements WebSocketMessageBrokerConfigurer {
-//    private final GpsRepository gpsRepository;
+    // nanumi.stomp.broker=redis 일 때만 존재 - 여러 서버가 /sub 구독을 공유
+    private final ObjectProvider<RedisBrokerRelay> redisBrokerRelay;
+    // 세션별 마지막 활동 시각 / 연결 종료 시 위치 상태 정리
+    private final StompSessionRegistry stompSessionRegistry;
+    // heartbeat 전송/확인 - @Scheduled 작업과 같은 스케줄러
+    private final TaskScheduler taskScheduler;
+    // 세션 idle-timeout (nanumi.stomp.idle-timeout-seconds, 120초) 보다 충분히 짧게 둔다
+    private final long heartbeatMillis;
+
+    public StompConfig(ObjectProvider<RedisBrokerRelay> redisBrokerRelay,
+                       StompSessionRegistry stompSessionRegistry,
+                       @Qualifier("taskScheduler") TaskScheduler taskScheduler,
+                       @Value("${nanumi.stomp.heartbeat-ms:10000}") long heartbeatMillis) {
+        this.redisBrokerRelay = redisBrokerRelay;
+        this.stompSessionRegistry = stompSessionRegistry;
+        this.taskScheduler = taskScheduler;
+        this.heartbeatMillis = heartbeatMillis;
+    }
 
     //TODO 메시지 브로커의 구성 정의
     @Override
     public void configureMessageBroker(MessageBrokerRegistry registry) {
         //클라이언트에게 메시지를 전송하는데 사용되는 브로커에 대한 경로 설정
-        registry.enableSimpleBroker("/sub");
+        // heartbeat 을 설정하지 않으면 0,0 으로 협상되어 조용한 세션은 idle-timeout 에 정리된다
+        registry.enableSimpleBroker("/sub")
+                .setTaskScheduler(taskScheduler)
+                .setHeartbeatValue(new long[]{heartbeatMillis, heartbeatMillis});
+        RedisBrokerRelay relay = redisBrokerRelay.getIfAvailable();
+        if (relay != null) {
+            registry.configureBrokerChannel().interceptors(relay);
+        }
         //클라이언트에서 서버로 메시지를 저장할 때 사용되는 경로의 접두사 설정
         registry.setApplicationDestinationPrefixes("/pub");
     }
 
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(stompSessionRegistry);
+    }
+
     //TODO 클라이언트가 웹소켓 서버에 연결할 수 있는 ENDPOINT 제공
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
@@ -39,21 +75,9 @@ public class StompConfig implements WebSocketMessageBrokerConfigurer {
     // "GPS"라는 이름으로 빈 문자열을 속성으로 설정합니다.
     @EventListener
     public void handleSessionConnect(SessionConnectEvent event) {
-        System.out.println("CONNECT / " + SimpAttributesContextHolder.currentAttributes().getSessionId());
+        log.debug("stomp session connected : {}", SimpAttributesContextHolder.currentAttributes().getSessionId());
         SimpAttributesContextHolder.currentAttributes().setAttribute("GPS", "");
 //        System.out.println(SimpAttributesContextHolder.currentAttributes().getAttribute("TEST"));
 //        System.out.println(event);
     }
-
-
-    // TODO 웹소켓 세션이 끊어질 때 사용이된다. GPS 속성을 가져와서 gpsKey 변수에 저장하고 해당 세션 ID를 출력한다.
-    @EventListener
-    public void handleSessionDisconnect(SessionDisconnectEvent event) {
-        String gpsKey = (String) SimpAttributesContextHolder.currentAttributes().getAttribute("GPS");
-        String sessionId = event.getSessionId();
-        System.out.println("DISCONNECT / " + sessionId + " / " + gpsKey);
-
-        //GPS 정보 삭제
-        //gpsRepository.dropUser(gpsKey, sessionId);
-    }
-}
\ No newline at end of file
+}
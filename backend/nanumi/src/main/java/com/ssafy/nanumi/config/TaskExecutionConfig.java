@@ -0,0 +1,23 @@
+package com.ssafy.nanumi.config;
+
+import org.springframework.boot.task.TaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class TaskExecutionConfig {
+
+    /*
+     * Spring Boot 기본 스레드풀 (MVC 비동기 요청 등에서 사용).
+     * 전용 스레드풀 (imageUploadExecutor, locationExecutor ...) 을 Executor 빈으로 등록하면
+     * Boot 가 applicationTaskExecutor 를 만들지 않으므로 spring.task.execution.* 설정 그대로 직접 등록한다.
+     * 이름 없이 Executor 를 주입받는 곳은 전용 스레드풀 대신 이 빈을 받는다.
+     */
+    @Primary
+    @Bean(name = {"applicationTaskExecutor", "taskExecutor"})
+    public ThreadPoolTaskExecutor applicationTaskExecutor(TaskExecutorBuilder builder) {
+        return builder.build();
+    }
+}
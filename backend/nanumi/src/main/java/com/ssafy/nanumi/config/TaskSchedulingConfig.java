@@ -0,0 +1,22 @@
+package com.ssafy.nanumi.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.TaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+@Configuration
+public class TaskSchedulingConfig {
+
+    /*
+     * @Scheduled 작업 (나눔 구간 전환, 매칭 저장 flush, 도착 판정/STOMP 세션 정리) 과 STOMP heartbeat 가 쓰는 스케줄러.
+     * Boot 기본값은 스레드 1개라 매칭 flush 가 몰리면 다른 작업이 밀리므로 여러 스레드로 등록한다.
+     * STOMP 설정이 만드는 messageBrokerTaskScheduler 와 구분되도록 이름은 taskScheduler 로 둔다.
+     */
+    @Bean(name = "taskScheduler")
+    public ThreadPoolTaskScheduler taskScheduler(TaskSchedulerBuilder builder,
+                                                 @Value("${nanumi.scheduling.pool-size:4}") int poolSize) {
+        return builder.poolSize(poolSize).build();
+    }
+}
@@ -25,9 +25,12 @@ public enum CustomExceptionStatus {
     NOT_FOUND_CATEGORY(false, 404, "카테고리를 찾을 수 없습니다."),
     NOT_FOUND_ADDRESS(false, 404, "주소를 찾을 수 없습니다."),
     NOT_SUPPORTED_FORMAT(false, 404, "지원하지 않는 format 입니다."),
+    IMAGE_UPLOAD_FAILED(false, 500, "이미지 업로드에 실패했습니다."),
     NOT_FOUND_CHAT_ROOM(false,404, "Not found chat room"),
     NOT_ALLOWED_CREATE(false, 400, "등록이 허용 되지 않는 시간대 입니다"),
     NOT_ALLOWED_USER(false,400,"등록이 허용되지 않은 사용자 입니다."),
+    INVALID_CURSOR(false, 400, "잘못된 커서 입니다."),
+    LOCK_ACQUIRE_TIMEOUT(false, 409, "요청이 많아 처리하지 못했습니다. 잠시 후 다시 시도해주세요."),
 
     RESPONSE_ACCOUNT_EXISTED(false, 400,"이미 존재하는 사용자 입니다."),
 
@@ -0,0 +1,118 @@
+package com.ssafy.nanumi.config.stomp;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.codec.TypedJsonJacksonCodec;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+
+import javax.annotation.PostConstruct;
+import java.util.UUID;
+
+/**
+ * 여러 서버가 /sub 구독을 공유하도록 Redis pub/sub 으로 메시지를 중계한다.
+ * 서버에서 brokerChannel 로 보내는 /sub 메시지를 Redis topic 에 발행하고,
+ * 다른 서버가 발행한 메시지는 자기 simple broker 로 전달해서 접속 중인 구독자에게 보낸다.
+ * (nanumi.stomp.broker=redis 일 때만 사용)
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "nanumi.stomp.broker", havingValue = "redis")
+public class RedisBrokerRelay implements ChannelInterceptor {
+    static final String TOPIC = "stomp:relay";
+    static final String RELAYED_HEADER = "nanumiRelayed";
+    private static final String RELAY_PREFIX = "/sub";
+
+    private final RedissonClient redissonClient;
+    private final MeterRegistry meterRegistry;
+    private final MessageChannel brokerChannel;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private RTopic topic;
+
+    public RedisBrokerRelay(RedissonClient redissonClient, MeterRegistry meterRegistry,
+                            @Lazy @Qualifier("brokerChannel") MessageChannel brokerChannel) {
+        this.redissonClient = redissonClient;
+        this.meterRegistry = meterRegistry;
+        this.brokerChannel = brokerChannel;
+    }
+
+    @PostConstruct
+    void subscribe() {
+        topic = redissonClient.getTopic(TOPIC, new TypedJsonJacksonCodec(RelayedMessage.class));
+        topic.addListener(RelayedMessage.class, (channel, message) -> deliver(message));
+    }
+
+    /* 이 서버에서 보낸 /sub 메시지를 다른 서버로 발행 */
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        MessageHeaders headers = message.getHeaders();
+        String destination = SimpMessageHeaderAccessor.getDestination(headers);
+        if (SimpMessageHeaderAccessor.getMessageType(headers) != SimpMessageType.MESSAGE
+                || destination == null || !destination.startsWith(RELAY_PREFIX)
+                || headers.containsKey(RELAYED_HEADER)
+                || !(message.getPayload() instanceof byte[])) {
+            return message;
+        }
+
+        byte[] payload = (byte[]) message.getPayload();
+        Object contentType = headers.get(MessageHeaders.CONTENT_TYPE);
+        topic.publishAsync(new RelayedMessage(nodeId, destination, contentType == null ? null : contentType.toString(), payload));
+        record("out", destination, payload.length);
+        return message;
+    }
+
+    /* 다른 서버에서 발행한 메시지를 로컬 구독자에게 전달 */
+    void deliver(RelayedMessage relayed) {
+        if (nodeId.equals(relayed.getOrigin())) {
+            return;
+        }
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(relayed.getDestination());
+        if (relayed.getContentType() != null) {
+            accessor.setContentType(MimeType.valueOf(relayed.getContentType()));
+        }
+        accessor.setHeader(RELAYED_HEADER, Boolean.TRUE);
+        try {
+            brokerChannel.send(MessageBuilder.createMessage(relayed.getPayload(), accessor.getMessageHeaders()));
+            record("in", relayed.getDestination(), relayed.getPayload().length);
+        } catch (Exception e) {
+            log.warn("stomp relay deliver failed : {}", relayed.getDestination(), e);
+        }
+    }
+
+    /* destination 별 처리량 - /sub/chat/room/1 -> /sub/chat 으로 묶어서 tag 가 늘어나지 않게 한다 */
+    private void record(String direction, String destination, int bytes) {
+        String prefix = destinationPrefix(destination);
+        Counter.builder("nanumi.stomp.relay.messages")
+                .tag("direction", direction)
+                .tag("destination", prefix)
+                .register(meterRegistry)
+                .increment();
+        DistributionSummary.builder("nanumi.stomp.relay.bytes")
+                .baseUnit("bytes")
+                .tag("direction", direction)
+                .tag("destination", prefix)
+                .register(meterRegistry)
+                .record(bytes);
+    }
+
+    static String destinationPrefix(String destination) {
+        int second = destination.indexOf('/', RELAY_PREFIX.length() + 1);
+        return second < 0 ? destination : destination.substring(0, second);
+    }
+}
@@ -0,0 +1,18 @@
+package com.ssafy.nanumi.config.stomp;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/* 서버 간 전달되는 STOMP 메시지 */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RelayedMessage {
+    private String origin;       // 발행한 서버 id (자기 메시지는 다시 전달하지 않는다)
+    private String destination;
+    private String contentType;
+    private byte[] payload;
+}
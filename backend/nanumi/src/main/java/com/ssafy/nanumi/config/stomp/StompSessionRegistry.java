@@ -0,0 +1,99 @@
+package com.ssafy.nanumi.config.stomp;
+
+import com.ssafy.nanumi.api.service.LocationTrackingService;
+import com.ssafy.nanumi.api.service.LocationUpdatePipeline;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * STOMP 세션 목록과 세션별 위치 상태 정리.
+ * clientInboundChannel 로 들어오는 모든 frame (heartbeat 포함) 으로 세션의 마지막 활동 시각을 갱신하고,
+ * 연결이 끊기거나 idle-timeout 동안 아무 frame 도 없으면 위치 grid / 처리 상태 / gps_users 문서를 지운다.
+ * 세션 목록에 없이 남은 위치도 마지막 갱신 시각 기준으로 함께 정리해서 메모리가 접속 중인 세션 수에 비례하도록 한다.
+ * 위치 갱신은 이동이 적으면 버려지므로, 세션이 활동 중이면 위치가 오래되어도 지우지 않는다.
+ * 조용한 세션도 heartbeat 로 활동 시각이 갱신된다 - broker heartbeat (StompConfig, nanumi.stomp.heartbeat-ms 10초) 는 idle-timeout 보다 충분히 짧아야 한다.
+ */
+@Slf4j
+@Component
+public class StompSessionRegistry implements ChannelInterceptor {
+    private final LocationTrackingService locationTrackingService;
+    private final LocationUpdatePipeline locationUpdatePipeline;
+    private final long idleTimeoutMillis;
+
+    // sessionId -> 마지막 활동 시각
+    private final Map<String, Long> sessions = new ConcurrentHashMap<>();
+
+    public StompSessionRegistry(LocationTrackingService locationTrackingService,
+                                LocationUpdatePipeline locationUpdatePipeline,
+                                MeterRegistry meterRegistry,
+                                @Value("${nanumi.stomp.idle-timeout-seconds:120}") long idleTimeoutSeconds) {
+        this.locationTrackingService = locationTrackingService;
+        this.locationUpdatePipeline = locationUpdatePipeline;
+        this.idleTimeoutMillis = TimeUnit.SECONDS.toMillis(idleTimeoutSeconds);
+        Gauge.builder("nanumi.stomp.sessions", sessions, Map::size)
+                .description("활동 중인 STOMP 세션 수")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        if (sessionId != null && SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.DISCONNECT) {
+            sessions.put(sessionId, System.currentTimeMillis());
+        }
+        return message;
+    }
+
+    @EventListener
+    public void handleSessionDisconnect(SessionDisconnectEvent event) {
+        log.debug("stomp session disconnected : {}", event.getSessionId());
+        release(event.getSessionId());
+    }
+
+    /* idle 세션과 세션 목록에 없이 갱신이 끊긴 위치 정리 - 활동 중인 세션의 위치는 (제자리라 갱신이 없어도) 남긴다 */
+    @Scheduled(fixedDelayString = "${nanumi.stomp.sweep-ms:30000}")
+    public void sweep() {
+        long cutoff = System.currentTimeMillis() - idleTimeoutMillis;
+        int idle = 0;
+        for (Map.Entry<String, Long> session : sessions.entrySet()) {
+            if (session.getValue() < cutoff && sessions.remove(session.getKey(), session.getValue())) {
+                cleanup(session.getKey());
+                idle++;
+            }
+        }
+        int stale = 0;
+        for (String sessionId : locationTrackingService.removeStale(cutoff, sessions::containsKey)) {
+            locationUpdatePipeline.remove(sessionId);
+            stale++;
+        }
+        if (idle + stale > 0) {
+            log.info("stomp session sweep : idle={}, stale locations={}", idle, stale);
+        }
+    }
+
+    private void release(String sessionId) {
+        if (sessionId == null) return;
+        sessions.remove(sessionId);
+        cleanup(sessionId);
+    }
+
+    private void cleanup(String sessionId) {
+        locationUpdatePipeline.remove(sessionId);
+        locationTrackingService.remove(sessionId);
+    }
+}
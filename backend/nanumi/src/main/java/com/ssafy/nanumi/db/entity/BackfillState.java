@@ -0,0 +1,37 @@
+package com.ssafy.nanumi.db.entity;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+
+/* 기동 시 실행하는 backfill 진행 상태 - 마지막으로 처리한 id 부터 이어서 하고, 끝나면 completed 로 표시한다 */
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Table(name = "backfill_state")
+public class BackfillState {
+
+    @Id
+    @Column(name = "name", columnDefinition = "VARCHAR(50)", nullable = false)
+    private String name;
+
+    @Column(name = "last_id", nullable = false)
+    private long lastId;
+
+    @Column(name = "completed", columnDefinition = "TINYINT", nullable = false)
+    private boolean completed;
+
+    public BackfillState(String name) {
+        this.name = name;
+    }
+
+    public void advance(long lastId) {
+        this.lastId = Math.max(this.lastId, lastId);
+    }
+
+    public void complete() {
+        this.completed = true;
+    }
+}
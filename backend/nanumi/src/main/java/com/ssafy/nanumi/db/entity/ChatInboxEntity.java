@@ -0,0 +1,33 @@
+package com.ssafy.nanumi.db.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/* 사용자별 채팅방 목록 read-model - (userId, roomSeq) 마다 하나, 메시지 저장 시 갱신 (읽지 않은 수는 ChatReadService) */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Document(collection = "chat_inbox")
+@CompoundIndex(name = "idx_chat_inbox_user_ts", def = "{'userId': 1, 'lastMessageTs': -1}")
+public class ChatInboxEntity {
+    @Id
+    private String _id; // userId:roomSeq
+    private long userId;
+    private long roomSeq;
+    private long productId;
+    private long opponentId;
+    private String opponentNickname;
+    private String opponentProfileImage;
+    private String lastMessage;
+    private long lastMessageTs;
+
+    public static String idOf(long userId, long roomSeq) {
+        return userId + ":" + roomSeq;
+    }
+}
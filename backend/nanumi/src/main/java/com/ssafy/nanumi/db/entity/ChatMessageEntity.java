@@ -7,6 +7,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.bson.types.ObjectId;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Data
@@ -14,6 +15,8 @@ import org.springframework.data.mongodb.core.mapping.Document;
 @NoArgsConstructor
 @Builder
 @Document(collection = "chat")
+// 커서 조회가 (ts, _id) 로 정렬/비교하므로 _id 까지 포함해야 같은 ts 구간에서도 인덱스만으로 정렬된다
+@CompoundIndex(name = "idx_chat_room_ts_id", def = "{'roomId': 1, 'ts': -1, '_id': -1}")
 public class ChatMessageEntity {
     @Id
     private String _id;
@@ -22,7 +25,8 @@ public class ChatMessageEntity {
     private long roomId;
     private long sender;
     private String message;
-    private String sendTime;
+    private String sendTime; // 화면 표시용 문자열 (정렬에는 ts 사용)
+    private long ts;         // 전송 시각 epoch millis
     private Long opponentID;
 
 }
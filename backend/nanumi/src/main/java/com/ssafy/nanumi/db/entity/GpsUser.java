@@ -3,8 +3,13 @@ package com.ssafy.nanumi.db.entity;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.data.mongodb.core.index.GeoSpatialIndexType;
+import org.springframework.data.mongodb.core.index.GeoSpatialIndexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import java.util.Date;
+
 @Getter
 @Setter
 @Document(collection = "gps_users")
@@ -15,4 +20,10 @@ public class GpsUser {
     private double beforeLongitude;
     private double nowLatitude;
     private double nowLongitude;
-}
\ No newline at end of file
+    private long userId;
+    private long chatRoomSeq;
+    @GeoSpatialIndexed(name = "idx_gps_users_location", type = GeoSpatialIndexType.GEO_2DSPHERE)
+    private GeoJsonPoint location; // [경도, 위도]
+    private long updatedAt;
+    private Date lastSeenAt; // TTL index - 갱신이 끊긴 세션 문서는 자동 삭제
+}
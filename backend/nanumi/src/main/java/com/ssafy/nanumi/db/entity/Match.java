@@ -8,7 +8,7 @@ import javax.persistence.*;
 @Getter
 @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
-@Table(name="matches")
+@Table(name="matches", uniqueConstraints = @UniqueConstraint(name = "uk_matches_product_receiver", columnNames = {"product_id", "receiver_id"}))
 public class Match extends BaseTimeEntity{
 
         @Id
@@ -10,7 +10,7 @@ import java.util.List;
 @Entity
 @Getter
 @Setter
-@Table(name="products")
+@Table(name="products", indexes = @Index(name = "idx_products_feed", columnList = "address_id, create_date, id"))
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class Product extends BaseTimeEntity {
 
@@ -22,14 +22,24 @@ public class ProductImage{
     @Column(name = "image_url", nullable = false)
     private String imageUrl;
 
+    // 상세 페이지용 변환본 (변환할 수 없는 이미지면 null)
+    @Column(name = "detail_url")
+    private String detailUrl;
+
+    // 피드 목록용 썸네일 (변환할 수 없는 이미지면 null)
+    @Column(name = "thumbnail_url")
+    private String thumbnailUrl;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name="product_id")
     private Product product;
 
     @Builder
-    public ProductImage(long id, String imageUrl, Product product) {
+    public ProductImage(long id, String imageUrl, String detailUrl, String thumbnailUrl, Product product) {
         this.id = id;
         this.imageUrl = imageUrl;
+        this.detailUrl = detailUrl;
+        this.thumbnailUrl = thumbnailUrl;
         this.product = product;
     }
 }
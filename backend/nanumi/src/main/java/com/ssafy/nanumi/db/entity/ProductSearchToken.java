@@ -0,0 +1,36 @@
+package com.ssafy.nanumi.db.entity;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+
+/* 상품 검색용 n-gram 역색인 - (token, product_id) 인덱스로 검색한다 */
+@Entity
+@Getter
+@IdClass(ProductSearchTokenId.class)
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Table(name = "product_search_tokens", indexes = @Index(name = "idx_search_token", columnList = "token, product_id"))
+public class ProductSearchToken {
+
+    @Id
+    @Column(name = "product_id", nullable = false)
+    private long productId;
+
+    @Id
+    @Column(name = "token", columnDefinition = "VARCHAR(2)", nullable = false)
+    private String token;
+
+    // 제목에서 나온 토큰 2, 내용에서 나온 토큰 1 (둘 다면 3)
+    @Column(name = "weight", columnDefinition = "INT", nullable = false)
+    private int weight;
+
+    @Builder
+    public ProductSearchToken(long productId, String token, int weight) {
+        this.productId = productId;
+        this.token = token;
+        this.weight = weight;
+    }
+}
@@ -0,0 +1,15 @@
+package com.ssafy.nanumi.db.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class ProductSearchTokenId implements Serializable {
+    private long productId;
+    private String token;
+}
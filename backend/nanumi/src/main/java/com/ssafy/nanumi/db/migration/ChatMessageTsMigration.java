@@ -0,0 +1,94 @@
+package com.ssafy.nanumi.db.migration;
+
+import com.ssafy.nanumi.db.entity.ChatMessageEntity;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 채팅 메시지 ts(epoch millis) 마이그레이션.
+ * {roomId, ts, _id} 복합 인덱스를 만들고 (이전 {roomId, ts} 인덱스는 삭제), ts 가 없는 기존 메시지는 sendTime 문자열을 해석해서 배치로 채운다.
+ * 해석할 수 없으면 ObjectId 생성 시각을 사용한다. 이미 채워진 문서는 건너뛰므로 여러 번 실행해도 된다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ChatMessageTsMigration {
+    private static final String COLLECTION = "chat";
+    private static final String SEND_TIME_PATTERN = "yyyy-MM-dd a KK:mm ss:SSS";
+    private static final int BATCH_SIZE = 500;
+    private static final String INDEX_NAME = "idx_chat_room_ts_id";
+    private static final String OLD_INDEX_NAME = "idx_chat_room_ts";
+
+    private final MongoTemplate mongoTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        IndexOperations indexOps = mongoTemplate.indexOps(ChatMessageEntity.class);
+        indexOps.ensureIndex(new Index().on("roomId", Sort.Direction.ASC).on("ts", Sort.Direction.DESC)
+                .on("_id", Sort.Direction.DESC).named(INDEX_NAME));
+        // 새 인덱스가 앞부분을 포함하므로 이전 인덱스는 쓰기 비용만 든다
+        if (indexOps.getIndexInfo().stream().anyMatch(index -> OLD_INDEX_NAME.equals(index.getName()))) {
+            indexOps.dropIndex(OLD_INDEX_NAME);
+        }
+
+        // 서버 locale 에 따라 오전/오후 또는 AM/PM 으로 저장되어 있다
+        SimpleDateFormat korean = new SimpleDateFormat(SEND_TIME_PATTERN, Locale.KOREAN);
+        SimpleDateFormat english = new SimpleDateFormat(SEND_TIME_PATTERN, Locale.US);
+
+        Query query = new Query(Criteria.where("ts").exists(false)).limit(BATCH_SIZE);
+        query.fields().include("_id").include("sendTime");
+
+        long migrated = 0;
+        List<Document> batch;
+        while (!(batch = mongoTemplate.find(query, Document.class, COLLECTION)).isEmpty()) {
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, COLLECTION);
+            for (Document document : batch) {
+                Object id = document.get("_id");
+                long ts = parse(document.getString("sendTime"), korean, english, id);
+                bulk.updateOne(new Query(Criteria.where("_id").is(id)), new Update().set("ts", ts));
+            }
+            bulk.execute();
+            migrated += batch.size();
+        }
+        if (migrated > 0) {
+            log.info("chat message ts migrated : {}", migrated);
+        }
+    }
+
+    private long parse(String sendTime, SimpleDateFormat korean, SimpleDateFormat english, Object id) {
+        if (sendTime != null) {
+            for (SimpleDateFormat format : new SimpleDateFormat[]{korean, english}) {
+                try {
+                    return format.parse(sendTime).getTime();
+                } catch (ParseException ignored) {
+                    // 다음 locale 시도
+                }
+            }
+        }
+        if (id instanceof ObjectId) {
+            return ((ObjectId) id).getDate().getTime();
+        }
+        if (id instanceof String && ObjectId.isValid((String) id)) {
+            return new ObjectId((String) id).getDate().getTime();
+        }
+        return 0L;
+    }
+}
@@ -0,0 +1,7 @@
+package com.ssafy.nanumi.db.repository;
+
+import com.ssafy.nanumi.db.entity.BackfillState;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface BackfillStateRepository extends JpaRepository<BackfillState, String> {
+}
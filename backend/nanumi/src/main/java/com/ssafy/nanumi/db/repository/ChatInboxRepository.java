@@ -0,0 +1,10 @@
+package com.ssafy.nanumi.db.repository;
+
+import com.ssafy.nanumi.db.entity.ChatInboxEntity;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.List;
+
+public interface ChatInboxRepository extends MongoRepository<ChatInboxEntity, String> {
+    List<ChatInboxEntity> findAllByUserIdOrderByLastMessageTsDesc(long userId);
+}
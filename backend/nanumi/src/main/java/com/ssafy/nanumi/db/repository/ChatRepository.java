@@ -7,6 +7,6 @@ import java.util.List;
 import java.util.Optional;
 
 public interface ChatRepository extends MongoRepository<ChatMessageEntity, String> {
-    List<ChatMessageEntity> findTop20ByRoomIdOrderBySendTimeDesc(long roomId);
-    List<ChatMessageEntity> findTop1ByRoomIdOrderBySendTimeDesc(long chatroomSeq);
+    List<ChatMessageEntity> findTop20ByRoomIdOrderByTsDesc(long roomId);
+    List<ChatMessageEntity> findTop1ByRoomIdOrderByTsDesc(long chatroomSeq);
 }
@@ -51,6 +51,9 @@ public interface MatchRepository extends CrudRepository<Match, Long> {
     Optional<Match> findMatchByProductAndUsers(@Param("productId")long productId, @Param("receiveUserId")long receiveUserId);
 
 
+    @Query("SELECT m.user.id FROM Match m WHERE m.product.id = :productId")
+    List<Long> findUserIdsByProductId(@Param("productId") long productId);
+
     List<Match> findAllByProductId(@Param("productId")long productId);
     boolean existsByProductIdAndUserId(long productId, long userId);
 }
@@ -1,6 +1,7 @@
 package com.ssafy.nanumi.db.repository;
 
 import com.ssafy.nanumi.api.response.ProductAllDTO;
+import com.ssafy.nanumi.common.cache.ProductFeedEntry;
 import com.ssafy.nanumi.db.entity.Product;
 
 import io.lettuce.core.dynamic.annotation.Param;
@@ -16,42 +17,71 @@ import java.util.List;
 import java.util.Optional;
 
 public interface ProductRepository extends JpaRepository<Product,Long> {
+
+    /* ProductAllDTO 목록 조회용 select 절 - 작성자 프로필과 첫번째 이미지(썸네일 우선)를 한 번에 가져온다 (N+1 방지) */
+    String PRODUCT_ALL_DTO_SELECT =
+            "select new com.ssafy.nanumi.api.response.ProductAllDTO(p.id, p.name, u.profileUrl, coalesce(pi.thumbnailUrl, pi.imageUrl), p.isClosed, p.isMatched, p.createDate) " +
+            "from Product p " +
+            "join p.user u " +
+            "left join p.productImages pi ";
+
+    /* 첫번째 이미지(가장 작은 id)만 조인되도록 제한하는 조건 */
+    String FIRST_IMAGE_CONDITION =
+            "(pi.id is null or pi.id = (select min(pi2.id) from ProductImage pi2 where pi2.product = p)) ";
+
     @Query(value =
-        "SELECT p " +
+        PRODUCT_ALL_DTO_SELECT +
+        "WHERE " + FIRST_IMAGE_CONDITION +
+        "AND p.address.id = :addressId " +
+        "AND p.isClosed = false " +
+        "AND p.isMatched = false " +
+        "AND p.isDeleted = false " +
+        "AND p.name Like %:name% " +
+        "AND p.user.id NOT IN :blockedIds " +
+        "AND p.createDate >= :cutoffDateTime",
+        countQuery =
+        "SELECT count(p) " +
         "FROM Product p " +
         "WHERE p.address.id = :addressId " +
         "AND p.isClosed = false " +
         "AND p.isMatched = false " +
         "AND p.isDeleted = false " +
         "AND p.name Like %:name% " +
-        "AND p.user.id NOT IN :blockers " +
-        "AND p.user.id NOT IN :targets " +
+        "AND p.user.id NOT IN :blockedIds " +
         "AND p.createDate >= :cutoffDateTime")
-    Page<ProductAllDTO> searchAll(@Param("addressId") long addressId, @Param("blockers") List<Long> blockers, @Param("targets") List<Long> targets, @Param("name") String name,@Param("cutoffDateTime") LocalDateTime cutoffDateTime, Pageable pageable);
+    Page<ProductAllDTO> searchAll(@Param("addressId") long addressId, @Param("blockedIds") List<Long> blockedIds, @Param("name") String name,@Param("cutoffDateTime") LocalDateTime cutoffDateTime, Pageable pageable);
 
-    @Query(value = "select p " +
+    /* 피드 캐시용 - 동네 전체 상품 id/작성자 (최신순) */
+    @Query(value = "select new com.ssafy.nanumi.common.cache.ProductFeedEntry(p.id, p.user.id, p.createDate) " +
             "from Product p " +
             "where p.address.id = :addressId " +
             "and p.isClosed = false " +
             "and p.isDeleted = false " +
             "and p.isMatched = false " +
-            "and p.user.id NOT IN :blockers " +
-            "and p.user.id NOT IN :targets " +
-            "and p.createDate >= :cutoffDateTime")
-
-    Page<ProductAllDTO> findAllProduct(@Param("addressId") Long addressId, @Param("blockers") List<Long> blockers, @Param("targets") List<Long> targets, @Param("cutoffDateTime") LocalDateTime cutoffDateTime , Pageable pageable);
+            "and p.createDate >= :cutoffDateTime " +
+            "order by p.createDate desc, p.id desc")
+    List<ProductFeedEntry> findFeedEntries(@Param("addressId") long addressId, @Param("cutoffDateTime") LocalDateTime cutoffDateTime);
 
-    @Query(value = "select p " +
+    /* 피드 캐시용 - 카테고리별 상품 id/작성자 (최신순) */
+    @Query(value = "select new com.ssafy.nanumi.common.cache.ProductFeedEntry(p.id, p.user.id, p.createDate) " +
             "from Product p " +
             "where p.address.id = :addressId " +
             "and p.category.id = :categoryId " +
-            "and p.isDeleted = false " +
             "and p.isClosed = false " +
+            "and p.isDeleted = false " +
             "and p.isMatched = false " +
-            "and p.user.id NOT IN :blockers " +
-            "and p.user.id NOT IN :targets " +
-            "and p.createDate >= :cutoffDateTime")
-    Page<ProductAllDTO> findAllCategoryProduct(@Param("addressId") Long addressId, @Param("categoryId") Long categoryId, @Param("blockers") List<Long> blockers, @Param("targets") List<Long> targets,@Param("cutoffDateTime") LocalDateTime cutoffDateTime, Pageable pageable);
+            "and p.createDate >= :cutoffDateTime " +
+            "order by p.createDate desc, p.id desc")
+    List<ProductFeedEntry> findCategoryFeedEntries(@Param("addressId") long addressId, @Param("categoryId") long categoryId, @Param("cutoffDateTime") LocalDateTime cutoffDateTime);
+
+    /* 검색 결과 id 목록으로 목록 DTO 조회 */
+    @Query(value = PRODUCT_ALL_DTO_SELECT +
+            "where " + FIRST_IMAGE_CONDITION +
+            "and p.id in :ids")
+    List<ProductAllDTO> findAllDtoByIdIn(@Param("ids") List<Long> ids);
+
+    /* id 순 keyset 조회 - 검색 색인 backfill 을 중단된 위치부터 이어서 한다 */
+    List<Product> findByIdGreaterThanOrderByIdAsc(long id, Pageable pageable);
 
     @Query(value = "select count(p) " +
             "from Product p " +
@@ -0,0 +1,41 @@
+package com.ssafy.nanumi.db.repository;
+
+import com.ssafy.nanumi.db.entity.ProductSearchToken;
+import com.ssafy.nanumi.db.entity.ProductSearchTokenId;
+import io.lettuce.core.dynamic.annotation.Param;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface ProductSearchTokenRepository extends JpaRepository<ProductSearchToken, ProductSearchTokenId> {
+
+    /* 검색어의 모든 토큰을 포함하는 상품 id 를 관련도(가중치 합), 최신순으로 조회 */
+    @Query(value = "select t.productId " +
+            "from ProductSearchToken t, Product p " +
+            "where t.productId = p.id " +
+            "and t.token in :tokens " +
+            "and p.address.id = :addressId " +
+            "and p.isClosed = false " +
+            "and p.isMatched = false " +
+            "and p.isDeleted = false " +
+            "and p.user.id NOT IN :blockedIds " +
+            "and p.createDate >= :cutoffDateTime " +
+            "group by t.productId, p.createDate " +
+            "having count(t) = :tokenCount " +
+            "order by sum(t.weight) desc, p.createDate desc",
+            countQuery = "select count(p) " +
+            "from Product p " +
+            "where p.address.id = :addressId " +
+            "and p.isClosed = false " +
+            "and p.isMatched = false " +
+            "and p.isDeleted = false " +
+            "and p.user.id NOT IN :blockedIds " +
+            "and p.createDate >= :cutoffDateTime " +
+            "and (select count(t) from ProductSearchToken t where t.productId = p.id and t.token in :tokens) = :tokenCount")
+    Page<Long> searchProductIds(@Param("addressId") long addressId, @Param("blockedIds") List<Long> blockedIds, @Param("tokens") Collection<String> tokens, @Param("tokenCount") long tokenCount, @Param("cutoffDateTime") LocalDateTime cutoffDateTime, Pageable pageable);
+}
@@ -22,7 +22,12 @@ public interface UserRepository extends JpaRepository<User,Long> {
             "where p.receiver.id = :userId")
     Page<ReviewReadDTO> getAllReview(@Param("userId") long userId, Pageable pageable) ;
 
-    @Query(value = "select p " +
+    @Query(value = ProductRepository.PRODUCT_ALL_DTO_SELECT +
+            "where " + ProductRepository.FIRST_IMAGE_CONDITION +
+            "and p.user.id = :userId " +
+            "and p.isDeleted = false " +
+            "and p.isMatched = true ",
+            countQuery = "select count(p) " +
             "from Product p " +
             "where p.user.id = :userId " +
             "and p.isDeleted = false " +
@@ -37,7 +42,12 @@ public interface UserRepository extends JpaRepository<User,Long> {
             "and p.isMatched = true ")
     int countAllReceiveProduct(@Param("userId") long userId);
 
-    @Query(value = "select p " +
+    @Query(value = ProductRepository.PRODUCT_ALL_DTO_SELECT +
+            "where " + ProductRepository.FIRST_IMAGE_CONDITION +
+            "and p.user.id = :userId " +
+            "and p.isDeleted = false "+
+            "and p.isMatched = false ",
+            countQuery = "select count(p) " +
             "from Product p " +
             "where p.user.id = :userId " +
             "and p.isDeleted = false "+
@@ -52,7 +62,13 @@ public interface UserRepository extends JpaRepository<User,Long> {
             "and p.isMatched = false ")
     int countAllMatchProduct(@Param("userId") long userId);
 
-    @Query(value = "select p " +
+    @Query(value = ProductRepository.PRODUCT_ALL_DTO_SELECT +
+            "where " + ProductRepository.FIRST_IMAGE_CONDITION +
+            "and p.user.id = :userId " +
+            "and p.Matches.size > 0 " +
+            "and p.isDeleted = false " +
+            "and p.isMatched = false ",
+            countQuery = "select count(p) " +
             "from Product p " +
             "where p.user.id = :userId " +
             "and p.Matches.size > 0 " +
@@ -61,7 +77,13 @@ public interface UserRepository extends JpaRepository<User,Long> {
     )
     Page<ProductAllDTO> getAllMatchingProduct(@Param("userId") long userId, Pageable pageable);
 
-    @Query(value = "select p " +
+    @Query(value = ProductRepository.PRODUCT_ALL_DTO_SELECT +
+            "left join p.Matches m " +
+            "where " + ProductRepository.FIRST_IMAGE_CONDITION +
+            "and m.user.id = :userId " +
+            "and p.isMatched = true " +
+            "and m.isMatching = true ",
+            countQuery = "select count(p) " +
             "from Product p " +
             "left join p.Matches m " +
             "where m.user.id = :userId " +
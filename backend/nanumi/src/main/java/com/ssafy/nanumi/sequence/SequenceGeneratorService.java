@@ -1,12 +1,14 @@
 package com.ssafy.nanumi.sequence;
 
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.mongodb.core.MongoOperations;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static org.springframework.data.mongodb.core.FindAndModifyOptions.options;
 import static org.springframework.data.mongodb.core.query.Criteria.where;
@@ -14,24 +16,59 @@ import static org.springframework.data.mongodb.core.query.Criteria.where;
 /**
  * SequenceGeneratorService는 MongoDB에 저장되는 각 도메인 객체에 대한 순차 ID를 생성하는 서비스입니다.
  * 이 클래스는 MongoDB에서 제공하지 않는 기능인 자동 증가 순차 ID를 생성하기 위해 사용됩니다.
+ * 매번 카운터 문서를 수정하지 않고 서버마다 blockSize 만큼의 구간을 $inc 한 번으로 예약한 뒤 메모리에서 나눠준다 (hi/lo).
+ * 구간은 서버끼리 겹치지 않고 한 서버 안에서는 항상 증가하지만, 서버 간 발급 순서와 재시작 시 남은 구간은 보장하지 않는다.
  */
-@RequiredArgsConstructor
 @Service
 public class SequenceGeneratorService {
     // MongoOperations는 MongoDB 데이터베이스에 대한 일반적인 작업을 수행하기 위한 인터페이스입니다.
     private final MongoOperations mongoOperations;
+    private final int blockSize;
+
+    // 시퀀스 이름별 현재 예약 구간
+    private final Map<String, SequenceBlock> blocks = new ConcurrentHashMap<>();
+
+    public SequenceGeneratorService(MongoOperations mongoOperations,
+                                    @Value("${nanumi.sequence.block-size:100}") int blockSize) {
+        this.mongoOperations = mongoOperations;
+        this.blockSize = Math.max(1, blockSize);
+    }
 
     /**
      * 이 메서드는 주어진 seqName에 대한 새로운 순차 ID를 생성하고 반환합니다.
-     * 이 메서드는 findAndModify 메서드를 사용하여 주어진 seqName에 대한 AutoIncrementSequence 객체를 조회하고, seq 필드를 1 증가시킵니다.
-     * 만약 AutoIncrementSequence 객체가 없으면 새로 생성하고 초기값 1을 할당합니다.
+     * 예약한 구간이 남아 있으면 DB 접근 없이 다음 값을 반환하고, 다 쓰면 새 구간을 예약합니다.
+     * 카운터 문서의 seq 는 지금까지 예약된 가장 큰 값이라 기존 1씩 증가하던 카운터와 그대로 이어집니다.
      *
      * @param seqName 새로운 순차 ID를 생성하려는 도메인 객체의 이름입니다. 예를 들어, ChatRoomEntity의 경우 "chatroom"이 됩니다.
      * @return 생성된 새로운 순차 ID
      */
     public Long generateSequence(String seqName) {
+        return generateSequence(seqName, blockSize);
+    }
+
+    /* 시퀀스별로 구간 크기를 따로 줄 때 - 같은 시퀀스는 같은 크기로 호출해야 한다 */
+    public Long generateSequence(String seqName, int blockSize) {
+        int size = Math.max(1, blockSize);
+        SequenceBlock block = blocks.computeIfAbsent(seqName, name -> new SequenceBlock());
+        synchronized (block) {
+            if (block.next > block.max) {
+                long max = reserve(seqName, size);
+                block.next = max - size + 1;
+                block.max = max;
+            }
+            return block.next++;
+        }
+    }
+
+    /* 구간 예약 - 예약한 구간의 마지막 값 반환 */
+    private long reserve(String seqName, int size) {
         AutoIncrementSequence counter = mongoOperations.findAndModify(Query.query(where("_id").is(seqName)),
-                new Update().inc("seq", 1), options().returnNew(true).upsert(true), AutoIncrementSequence.class);
-        return !Objects.isNull(counter) ? counter.getSeq() : 1;
+                new Update().inc("seq", size), options().returnNew(true).upsert(true), AutoIncrementSequence.class);
+        return !Objects.isNull(counter) ? counter.getSeq() : size;
+    }
+
+    private static class SequenceBlock {
+        private long next = 1;
+        private long max = 0; // next > max 이면 비어 있음
     }
 }
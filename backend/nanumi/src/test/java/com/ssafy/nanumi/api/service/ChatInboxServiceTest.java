@@ -0,0 +1,154 @@
+package com.ssafy.nanumi.api.service;
+
+import com.ssafy.nanumi.db.entity.ChatInboxEntity;
+import com.ssafy.nanumi.db.entity.ChatMessageEntity;
+import com.ssafy.nanumi.db.entity.ChatRoomEntity;
+import com.ssafy.nanumi.db.entity.User;
+import com.ssafy.nanumi.db.repository.ChatRoomRepository;
+import com.ssafy.nanumi.db.repository.UserRepository;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/* 채팅방 목록 문서 갱신을 bulk mock 에 기록된 query/update 로 재현 */
+class ChatInboxServiceTest {
+    private final List<Query> upsertQueries = new ArrayList<>();
+    private final List<Update> upserts = new ArrayList<>();
+    private final List<Query> updateQueries = new ArrayList<>();
+    private final List<Update> updates = new ArrayList<>();
+
+    private MongoTemplate mongoTemplate;
+    private UserRepository userRepository;
+    private ChatRoomRepository chatRoomRepository;
+    private ChatInboxService chatInboxService;
+    private int executed;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        userRepository = mock(UserRepository.class);
+        chatRoomRepository = mock(ChatRoomRepository.class);
+        BulkOperations bulk = mock(BulkOperations.class);
+        when(mongoTemplate.bulkOps(eq(BulkOperations.BulkMode.UNORDERED), eq(ChatInboxEntity.class))).thenReturn(bulk);
+        when(bulk.upsert(any(Query.class), any(Update.class))).thenAnswer(invocation -> {
+            upsertQueries.add(invocation.getArgument(0));
+            upserts.add(invocation.getArgument(1));
+            return bulk;
+        });
+        when(bulk.updateMulti(any(Query.class), any(Update.class))).thenAnswer(invocation -> {
+            updateQueries.add(invocation.getArgument(0));
+            updates.add(invocation.getArgument(1));
+            return bulk;
+        });
+        when(bulk.execute()).thenAnswer(invocation -> {
+            executed++;
+            return null;
+        });
+        when(mongoTemplate.indexOps(ChatInboxEntity.class)).thenReturn(mock(IndexOperations.class));
+
+        chatInboxService = new ChatInboxService(mongoTemplate, userRepository, chatRoomRepository);
+    }
+
+    @Test
+    void 채팅방을_만들면_참여자마다_상대방_스냅샷으로_문서를_만든다() {
+        when(userRepository.findAllById(anyIterable())).thenReturn(Arrays.asList(user(1L, "나눔이"), user(2L, "받는이")));
+
+        chatInboxService.createRoom(room(7L, 1L, 2L));
+
+        assertThat(executed).isEqualTo(1);
+        assertThat(upsertQueries).extracting(query -> query.getQueryObject().get("_id")).containsExactly("1:7", "2:7");
+        Document mine = set(upserts.get(0));
+        assertThat(mine.get("userId")).isEqualTo(1L);
+        assertThat(mine.get("opponentId")).isEqualTo(2L);
+        assertThat(mine.get("opponentNickname")).isEqualTo("받는이");
+        assertThat(set(upserts.get(1)).get("opponentNickname")).isEqualTo("나눔이");
+        // 이미 있는 문서 (재실행) 의 마지막 메시지는 덮어쓰지 않는다
+        assertThat(mine).doesNotContainKey("lastMessageTs");
+        assertThat(((Document) upserts.get(0).getUpdateObject().get("$setOnInsert")).get("lastMessageTs")).isEqualTo(0L);
+    }
+
+    @Test
+    void 참여자가_둘이_아니면_문서를_만들지_않는다() {
+        chatInboxService.createRoom(room(7L, 1L));
+
+        assertThat(executed).isZero();
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void 메시지는_방마다_가장_최근_것으로_한_번만_갱신한다() {
+        chatInboxService.applyMessages(Arrays.asList(
+                message(7L, "첫번째", 100L),
+                message(8L, "다른 방", 150L),
+                message(7L, "세번째", 300L),
+                message(7L, "두번째", 200L)));
+
+        assertThat(executed).isEqualTo(1);
+        assertThat(updates).hasSize(2);
+        int room7 = updateQueries.get(0).getQueryObject().get("roomSeq").equals(7L) ? 0 : 1;
+        assertThat(set(updates.get(room7)).get("lastMessage")).isEqualTo("세번째");
+        assertThat(set(updates.get(room7)).get("lastMessageTs")).isEqualTo(300L);
+        // 늦게 반영되는 이전 batch 가 더 최근 메시지를 덮어쓰지 않도록 ts 조건을 건다
+        assertThat(((Document) updateQueries.get(room7).getQueryObject().get("lastMessageTs")).get("$lt")).isEqualTo(300L);
+    }
+
+    @Test
+    void 빈_batch_는_bulk_를_실행하지_않는다() {
+        chatInboxService.applyMessages(Collections.emptyList());
+
+        assertThat(executed).isZero();
+    }
+
+    @Test
+    void backfill_은_완료_표시가_있으면_다시_실행하지_않는다() {
+        when(mongoTemplate.exists(any(Query.class), eq("migrations"))).thenReturn(true);
+
+        chatInboxService.backfill();
+
+        verifyNoInteractions(chatRoomRepository);
+        verify(mongoTemplate, never()).upsert(any(Query.class), any(Update.class), eq("migrations"));
+    }
+
+    @Test
+    void backfill_은_방마다_upsert_하고_끝나면_완료_표시를_남긴다() {
+        when(userRepository.findAllById(anyIterable())).thenReturn(Arrays.asList(user(1L, "나눔이"), user(2L, "받는이")));
+        when(chatRoomRepository.findAll()).thenReturn(Arrays.asList(room(7L, 1L, 2L), room(8L, 1L, 2L)));
+        when(mongoTemplate.find(any(Query.class), eq(ChatMessageEntity.class)))
+                .thenReturn(Collections.singletonList(message(7L, "마지막", 500L)), Collections.emptyList());
+
+        chatInboxService.backfill();
+
+        assertThat(upsertQueries).extracting(query -> query.getQueryObject().get("_id")).containsExactly("1:7", "2:7", "1:8", "2:8");
+        assertThat(updates).hasSize(1);
+        assertThat(set(updates.get(0)).get("lastMessage")).isEqualTo("마지막");
+        verify(mongoTemplate).upsert(argThat(query -> "chat_inbox_backfill".equals(query.getQueryObject().get("_id"))),
+                any(Update.class), eq("migrations"));
+    }
+
+    private Document set(Update update) {
+        return (Document) update.getUpdateObject().get("$set");
+    }
+
+    private User user(long id, String nickname) {
+        return User.builder().id(id).nickname(nickname).build();
+    }
+
+    private ChatRoomEntity room(long seq, long... users) {
+        return ChatRoomEntity.builder().chatroomSeq(seq).userList(users).productId(3L).build();
+    }
+
+    private ChatMessageEntity message(long roomId, String text, long ts) {
+        return ChatMessageEntity.builder().roomId(roomId).message(text).ts(ts).sender(1L).opponentID(2L).build();
+    }
+}
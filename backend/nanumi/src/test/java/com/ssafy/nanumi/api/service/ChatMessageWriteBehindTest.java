@@ -0,0 +1,186 @@
+package com.ssafy.nanumi.api.service;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.ssafy.nanumi.db.entity.ChatMessageEntity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/* Mongo 장애 (insert 실패) 를 bulk insert mock 으로 재현 */
+class ChatMessageWriteBehindTest {
+    private static final int MESSAGES = 50;
+    private static final String POISON = "poison";
+
+    private final Map<String, Integer> saved = new ConcurrentHashMap<>();
+    private final AtomicInteger attempts = new AtomicInteger();
+    private final Deque<RuntimeException> failures = new ArrayDeque<>();
+
+    private ChatInboxService chatInboxService;
+    private SimpleMeterRegistry meterRegistry;
+    private ChatMessageWriteBehind writeBehind;
+    private boolean stopped;
+
+    @BeforeEach
+    void setUp() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        when(mongoTemplate.bulkOps(eq(BulkOperations.BulkMode.UNORDERED), eq(ChatMessageEntity.class))).thenAnswer(invocation -> {
+            BulkOperations bulk = mock(BulkOperations.class);
+            List<ChatMessageEntity> inserted = new ArrayList<>();
+            when(bulk.insert(anyList())).thenAnswer(insert -> {
+                inserted.addAll(insert.<List<ChatMessageEntity>>getArgument(0));
+                return bulk;
+            });
+            when(bulk.execute()).thenAnswer(execute -> {
+                attempts.incrementAndGet();
+                RuntimeException failure;
+                synchronized (failures) {
+                    failure = failures.poll();
+                }
+                if (failure instanceof DataAccessResourceFailureException) {
+                    throw failure;
+                }
+                // duplicate key 실패여도 나머지 문서는 저장된다 (unordered) - message 가 POISON 인 문서는 항상 거부된다
+                List<BulkWriteError> rejected = new ArrayList<>();
+                for (int i = 0; i < inserted.size(); i++) {
+                    if (POISON.equals(inserted.get(i).getMessage())) {
+                        rejected.add(new BulkWriteError(121, "Document failed validation", new BsonDocument(), i));
+                    } else {
+                        saved.merge(inserted.get(i).get_id(), 1, Integer::sum);
+                    }
+                }
+                if (failure != null) {
+                    throw failure;
+                }
+                if (!rejected.isEmpty()) {
+                    BulkOperationException exception = mock(BulkOperationException.class);
+                    when(exception.getErrors()).thenReturn(rejected);
+                    throw exception;
+                }
+                return null;
+            });
+            return bulk;
+        });
+        chatInboxService = mock(ChatInboxService.class);
+
+        meterRegistry = new SimpleMeterRegistry();
+        writeBehind = new ChatMessageWriteBehind(mongoTemplate, chatInboxService, meterRegistry, 1000, 10, 5);
+        writeBehind.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (!stopped) {
+            writeBehind.stop();
+        }
+    }
+
+    @Test
+    void 저장이_실패하면_batch_를_버리지_않고_다시_저장한다() throws InterruptedException {
+        failures.add(new DataAccessResourceFailureException("mongo down"));
+        failures.add(new DataAccessResourceFailureException("mongo down"));
+
+        List<ChatMessageEntity> messages = enqueue(MESSAGES);
+        await(() -> saved.size() == MESSAGES);
+
+        assertThat(attempts.get()).isGreaterThan(2);
+        assertThat(saved.keySet()).containsExactlyInAnyOrderElementsOf(ids(messages));
+        assertThat(saved.values()).containsOnly(1);
+        verify(chatInboxService, atLeastOnce()).applyMessages(anyList());
+    }
+
+    @Test
+    void 이미_저장된_메시지의_duplicate_key_는_성공으로_본다() throws InterruptedException {
+        BulkOperationException duplicate = mock(BulkOperationException.class);
+        when(duplicate.getErrors()).thenReturn(List.of(new BulkWriteError(11000, "duplicate key", new BsonDocument(), 0)));
+        failures.add(duplicate);
+
+        List<ChatMessageEntity> messages = enqueue(1);
+        await(() -> saved.size() == 1);
+        Thread.sleep(300); // 재시도가 있었다면 이 사이에 일어난다
+
+        assertThat(saved.keySet()).containsExactlyElementsOf(ids(messages));
+        assertThat(attempts.get()).isEqualTo(1);
+        verify(chatInboxService).applyMessages(anyList());
+    }
+
+    @Test
+    void 거부된_문서만_한_건씩_다시_저장하고_계속_거부되면_버린다() throws InterruptedException {
+        List<ChatMessageEntity> messages = enqueue(5);
+        ChatMessageEntity poison = ChatMessageEntity.builder().roomId(1L).sender(10L).message(POISON).ts(5).build();
+        writeBehind.enqueue(poison);
+        messages.addAll(enqueue(5));
+
+        await(() -> dropped() == 1);
+
+        // 거부된 문서 때문에 나머지 문서가 다시 저장되거나 늦어지지 않는다
+        assertThat(saved.keySet()).containsExactlyInAnyOrderElementsOf(ids(messages)).doesNotContain(poison.get_id());
+        assertThat(saved.values()).containsOnly(1);
+        assertThat(writeBehind.persistLagMillis()).isEqualTo(5 + 5_000);
+    }
+
+    @Test
+    void 종료할_때_저장하지_못한_batch_도_저장한다() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            failures.add(new DataAccessResourceFailureException("mongo down"));
+        }
+
+        List<ChatMessageEntity> messages = enqueue(MESSAGES);
+        await(() -> attempts.get() >= 1);
+        writeBehind.stop();
+        stopped = true;
+
+        assertThat(saved.keySet()).containsExactlyInAnyOrderElementsOf(ids(messages));
+        assertThat(saved.values()).containsOnly(1);
+    }
+
+    private List<ChatMessageEntity> enqueue(int count) {
+        List<ChatMessageEntity> messages = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ChatMessageEntity message = ChatMessageEntity.builder()
+                    .roomId(1L)
+                    .sender(10L)
+                    .message("message" + i)
+                    .ts(i)
+                    .build();
+            messages.add(message);
+            writeBehind.enqueue(message);
+        }
+        return messages;
+    }
+
+    private double dropped() {
+        return meterRegistry.get("nanumi.chat.write.dropped").counter().count();
+    }
+
+    private List<String> ids(List<ChatMessageEntity> messages) {
+        List<String> ids = new ArrayList<>();
+        for (ChatMessageEntity message : messages) {
+            assertThat(message.get_id()).isNotNull();
+            ids.add(message.get_id());
+        }
+        return ids;
+    }
+
+    private void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+}
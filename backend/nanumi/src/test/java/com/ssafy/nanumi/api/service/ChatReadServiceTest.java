@@ -0,0 +1,178 @@
+package com.ssafy.nanumi.api.service;
+
+import com.ssafy.nanumi.common.ChatReadEventDTO;
+import com.ssafy.nanumi.common.cache.ChatRoomMembershipCache;
+import com.ssafy.nanumi.config.response.exception.CustomException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RMap;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
+import org.redisson.misc.RedissonPromise;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/* Redis 의 증가/읽음 script 를 메모리 hash 로 재현 - 비동기 완료 순서는 테스트에서 정한다 */
+class ChatReadServiceTest {
+    private static final long ROOM = 7L;
+    private static final long READER = 1L;
+    private static final long SENDER = 2L;
+
+    private final Map<String, Map<String, Long>> hashes = new HashMap<>();
+    private final Map<String, Long> counters = new HashMap<>();
+    private final List<Runnable> pendingCompletions = new ArrayList<>();
+    private final List<ChatReadEventDTO> readerEvents = new ArrayList<>();
+    private final List<ChatReadEventDTO> senderEvents = new ArrayList<>();
+
+    private ChatReadService chatReadService;
+
+    @BeforeEach
+    void setUp() {
+        RScript script = mock(RScript.class);
+        when(script.eval(anyString(), any(RScript.Mode.class), anyString(), any(RScript.ReturnType.class), anyList(), any()))
+                .thenAnswer(invocation -> run(invocation.getArgument(2), invocation.getArgument(4), args(invocation.getArguments())));
+        when(script.evalAsync(anyString(), any(RScript.Mode.class), anyString(), any(RScript.ReturnType.class), anyList(), any()))
+                .thenAnswer(invocation -> {
+                    // script 는 호출 순서대로 원자 실행되고, 완료 콜백만 나중에 (순서를 바꿔) 실행한다
+                    List<Object> result = run(invocation.getArgument(2), invocation.getArgument(4), args(invocation.getArguments()));
+                    RedissonPromise<List<Object>> promise = new RedissonPromise<>();
+                    pendingCompletions.add(() -> promise.trySuccess(result));
+                    return promise;
+                });
+
+        RedissonClient redissonClient = mock(RedissonClient.class);
+        when(redissonClient.getScript(any(Codec.class))).thenReturn(script);
+        when(redissonClient.getMap(anyString(), any(Codec.class))).thenAnswer(invocation -> {
+            Map<Object, Object> snapshot = new HashMap<>();
+            hash(invocation.getArgument(0)).forEach((field, value) -> snapshot.put(field, value.toString()));
+            RMap<Object, Object> map = mock(RMap.class);
+            when(map.readAllMap()).thenReturn(snapshot);
+            return map;
+        });
+
+        SimpMessageSendingOperations messageTemplate = mock(SimpMessageSendingOperations.class);
+        doAnswer(invocation -> {
+            String destination = invocation.getArgument(0);
+            (destination.endsWith("/" + READER) ? readerEvents : senderEvents).add(invocation.getArgument(1));
+            return null;
+        }).when(messageTemplate).convertAndSend(anyString(), any(Object.class));
+
+        ChatRoomMembershipCache membershipCache = mock(ChatRoomMembershipCache.class);
+        when(membershipCache.get(ROOM)).thenReturn(new ChatRoomMembershipCache.Membership(READER, SENDER, true));
+
+        chatReadService = new ChatReadService(redissonClient, messageTemplate, membershipCache);
+    }
+
+    @Test
+    void 마지막_메시지까지_읽으면_읽지_않은_수를_지운다() {
+        send(100L);
+        send(200L);
+        completeInOrder();
+        assertThat(latest(readerEvents).getUnreadCount()).isEqualTo(2L);
+
+        assertThat(chatReadService.markRead(READER, ROOM, 200L)).isEqualTo(200L);
+
+        assertThat(latest(readerEvents).getUnreadCount()).isZero();
+        assertThat(chatReadService.getUnreadCounts(READER)).doesNotContainKey(ROOM);
+    }
+
+    @Test
+    void 읽음_요청보다_늦게_온_메시지가_있으면_읽지_않은_수를_지우지_않는다() {
+        send(100L);
+        send(200L);
+        // 화면에는 200 까지 보였지만 읽음 요청 전에 300 이 도착했다
+        send(300L);
+
+        chatReadService.markRead(READER, ROOM, 200L);
+        assertThat(unread()).isEqualTo(3L);
+        assertThat(latest(readerEvents).getUnreadCount()).isEqualTo(3L);
+
+        chatReadService.markRead(READER, ROOM, 300L);
+        assertThat(unread()).isZero();
+    }
+
+    @Test
+    void 읽음_위치는_뒤로_가지_않는다() {
+        send(300L);
+        chatReadService.markRead(READER, ROOM, 300L);
+
+        assertThat(chatReadService.markRead(READER, ROOM, 100L)).isEqualTo(300L);
+        ChatReadEventDTO receipt = senderEvents.get(senderEvents.size() - 1);
+        assertThat(receipt.getReadTs()).isEqualTo(300L);
+        assertThat(receipt.getPerson()).isEqualTo(READER);
+    }
+
+    @Test
+    void 변경분이_순서가_바뀌어_도착해도_순번이_가장_큰_수가_최종값이다() {
+        send(100L);
+        send(200L);
+        send(300L);
+        // 비동기 완료가 역순으로 도착
+        Collections.reverse(pendingCompletions);
+        pendingCompletions.forEach(Runnable::run);
+        pendingCompletions.clear();
+
+        assertThat(readerEvents).extracting(ChatReadEventDTO::getUnreadCount).containsExactly(3L, 2L, 1L);
+        // 클라이언트는 받은 것 중 가장 큰 seq 의 값을 쓴다
+        assertThat(latest(readerEvents).getUnreadCount()).isEqualTo(3L);
+
+        // 읽음 처리 결과도 같은 순번을 이어 받는다
+        chatReadService.markRead(READER, ROOM, 300L);
+        assertThat(readerEvents.get(readerEvents.size() - 1).getSeq()).isEqualTo(4L);
+        assertThat(latest(readerEvents).getUnreadCount()).isZero();
+    }
+
+    @Test
+    void 참여자가_아니면_읽음_처리할_수_없다() {
+        assertThatThrownBy(() -> chatReadService.markRead(99L, ROOM, 100L)).isInstanceOf(CustomException.class);
+        assertThat(senderEvents).isEmpty();
+    }
+
+    private void send(long ts) {
+        chatReadService.onMessage(ROOM, READER, ts);
+    }
+
+    private void completeInOrder() {
+        pendingCompletions.forEach(Runnable::run);
+        pendingCompletions.clear();
+    }
+
+    private long unread() {
+        return chatReadService.getUnreadCounts(READER).getOrDefault(ROOM, 0L);
+    }
+
+    private ChatReadEventDTO latest(List<ChatReadEventDTO> events) {
+        return events.stream().max(Comparator.comparingLong(ChatReadEventDTO::getSeq)).orElseThrow();
+    }
+
+    private Object[] args(Object[] arguments) {
+        return Arrays.copyOfRange(arguments, 5, arguments.length);
+    }
+
+    private List<Object> run(String lua, List<Object> keys, Object[] args) {
+        String room = args[0].toString();
+        long ts = Long.parseLong(args[1].toString());
+        Map<String, Long> unread = hash(keys.get(0));
+        if (lua.contains("HINCRBY")) {
+            long count = unread.merge(room, 1L, Long::sum);
+            hash(keys.get(1)).merge(room, ts, Math::max);
+            return Arrays.asList(count, counters.merge(keys.get(2).toString(), 1L, Long::sum));
+        }
+        long cursor = hash(keys.get(1)).merge(room, ts, Math::max);
+        if (cursor >= hash(keys.get(2)).getOrDefault(room, 0L)) {
+            unread.remove(room);
+        }
+        return Arrays.asList(cursor, unread.getOrDefault(room, 0L), counters.merge(keys.get(3).toString(), 1L, Long::sum));
+    }
+
+    private Map<String, Long> hash(Object key) {
+        return hashes.computeIfAbsent(key.toString(), k -> new HashMap<>());
+    }
+}
@@ -0,0 +1,208 @@
+package com.ssafy.nanumi.api.service;
+
+import com.ssafy.nanumi.common.LocationDTO;
+import com.ssafy.nanumi.common.cache.ChatRoomMembershipCache;
+import com.ssafy.nanumi.common.geo.GeoUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RMap;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/* 처리 스레드는 등록된 작업을 테스트에서 직접 실행해서 순서를 정한다 (위치는 약속 장소에서 정북 방향 거리로 만든다) */
+class LocationUpdatePipelineTest {
+    private static final String SESSION = "session-1";
+    private static final int ROOM = 1;
+    private static final long USER = 7L;
+    private static final int OPPONENT = 8;
+    private static final double TARGET_LATITUDE = 37.5013;
+    private static final double TARGET_LONGITUDE = 127.0396;
+
+    private final List<Runnable> tasks = new ArrayList<>();
+    private final List<Double> tracked = new ArrayList<>();
+
+    private ThreadPoolTaskExecutor executor;
+    private LocationTrackingService locationTrackingService;
+    private MeetupArrivalService meetupArrivalService;
+    private ChatRoomMembershipCache membershipCache;
+    private MeetupGeofence meetupGeofence;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        executor = mock(ThreadPoolTaskExecutor.class);
+        doAnswer(invocation -> {
+            tasks.add(invocation.getArgument(0));
+            return null;
+        }).when(executor).execute(any(Runnable.class));
+
+        locationTrackingService = mock(LocationTrackingService.class);
+        when(locationTrackingService.update(anyString(), anyLong(), anyLong(), anyDouble(), anyDouble())).thenAnswer(invocation -> {
+            tracked.add(invocation.getArgument(3));
+            return null;
+        });
+        meetupArrivalService = mock(MeetupArrivalService.class);
+
+        membershipCache = mock(ChatRoomMembershipCache.class);
+        when(membershipCache.get(ROOM)).thenReturn(new ChatRoomMembershipCache.Membership(USER, OPPONENT, true));
+
+        RedissonClient redissonClient = mock(RedissonClient.class);
+        RMap<String, String> arrived = mock(RMap.class);
+        when(arrived.fastPutIfAbsent(anyString(), anyString())).thenReturn(true);
+        when(redissonClient.<String, String>getMap(anyString(), any(Codec.class))).thenReturn(arrived);
+        // 100m 안으로 들어오고 130m 밖으로 나가야 이탈, 안쪽 위치 2번 + 2초 이상이면 도착
+        meetupGeofence = new MeetupGeofence(redissonClient, 100, 130, 2, 2_000, 24, 30);
+
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private LocationUpdatePipeline pipeline(long keepAliveMillis) {
+        return new LocationUpdatePipeline(executor, locationTrackingService, meetupArrivalService, meetupGeofence, membershipCache,
+                meterRegistry, 5, 50, keepAliveMillis);
+    }
+
+    @Test
+    void 최소_이동_거리보다_적게_움직이면_버린다() {
+        LocationUpdatePipeline pipeline = pipeline(30_000);
+
+        submitAndRun(pipeline, 500);
+        submitAndRun(pipeline, 497);
+
+        assertThat(tracked).hasSize(1);
+        assertThat(count("processed")).isEqualTo(1);
+        assertThat(count("dropped")).isEqualTo(1);
+    }
+
+    @Test
+    void 판정_경계에서_멀면_경계까지_남은_거리만큼_움직여야_처리한다() {
+        LocationUpdatePipeline pipeline = pipeline(30_000);
+
+        // 500m - 경계 (100/130m) 까지 370m 이므로 기준은 최대값 50m
+        submitAndRun(pipeline, 500);
+        submitAndRun(pipeline, 470);
+        assertThat(count("dropped")).isEqualTo(1);
+
+        submitAndRun(pipeline, 440);
+        assertThat(tracked).containsExactly(north(500), north(440));
+    }
+
+    @Test
+    void 판정_경계_근처에서는_작은_이동도_처리한다() {
+        LocationUpdatePipeline pipeline = pipeline(30_000);
+
+        // 110m - 진입 경계 (100m) 까지 10m
+        submitAndRun(pipeline, 110);
+        submitAndRun(pipeline, 102);
+        assertThat(count("dropped")).isEqualTo(1);
+
+        submitAndRun(pipeline, 98);
+        assertThat(count("processed")).isEqualTo(2);
+        assertThat(meetupGeofence.isConfirming(ROOM, USER)).isTrue();
+    }
+
+    @Test
+    void 경계까지_남은_거리가_최소_이동_거리보다_짧으면_최소_이동_거리보다_적게_움직여도_처리한다() {
+        LocationUpdatePipeline pipeline = pipeline(30_000);
+
+        // 103m - 진입 경계 (100m) 까지 3m, 최소 이동 거리 5m 보다 적게 움직여 경계를 넘는다
+        submitAndRun(pipeline, 103);
+        submitAndRun(pipeline, 99);
+
+        assertThat(count("processed")).isEqualTo(2);
+        assertThat(count("dropped")).isZero();
+        assertThat(meetupGeofence.isConfirming(ROOM, USER)).isTrue();
+    }
+
+    @Test
+    void 갱신이_오래_없으면_제자리_위치도_처리한다() throws InterruptedException {
+        LocationUpdatePipeline pipeline = pipeline(100);
+
+        submitAndRun(pipeline, 500);
+        submitAndRun(pipeline, 500);
+        assertThat(count("dropped")).isEqualTo(1);
+
+        Thread.sleep(150);
+        submitAndRun(pipeline, 500);
+        assertThat(count("processed")).isEqualTo(2);
+    }
+
+    @Test
+    void 도착_확정을_기다리는_동안에는_제자리_위치도_처리한다() {
+        LocationUpdatePipeline pipeline = pipeline(30_000);
+
+        submitAndRun(pipeline, 90);
+        submitAndRun(pipeline, 90);
+        submitAndRun(pipeline, 90);
+
+        assertThat(count("processed")).isEqualTo(3);
+        assertThat(count("dropped")).isZero();
+    }
+
+    @Test
+    void 처리_전에_들어온_위치는_최신_것으로_합친다() {
+        LocationUpdatePipeline pipeline = pipeline(30_000);
+
+        pipeline.submit(SESSION, location(500));
+        pipeline.submit(SESSION, location(400));
+        pipeline.submit(SESSION, location(300));
+        assertThat(tasks).hasSize(1);
+        runTasks();
+
+        assertThat(tracked).containsExactly(north(300));
+        assertThat(count("coalesced")).isEqualTo(2);
+        assertThat(count("processed")).isEqualTo(1);
+    }
+
+    @Test
+    void 먼저_받은_위치가_늦게_처리되면_버린다() {
+        LocationUpdatePipeline pipeline = pipeline(30_000);
+        // 첫 작업이 대기열에서 위치를 꺼낸 뒤 처리하기 전에 다음 위치가 들어와 먼저 처리된다
+        when(membershipCache.get(ROOM)).thenAnswer(invocation -> {
+            if (tasks.isEmpty()) {
+                pipeline.submit(SESSION, location(300));
+                tasks.remove(0).run();
+            }
+            return new ChatRoomMembershipCache.Membership(USER, OPPONENT, true);
+        }).thenReturn(new ChatRoomMembershipCache.Membership(USER, OPPONENT, true));
+
+        pipeline.submit(SESSION, location(500));
+        tasks.remove(0).run();
+
+        assertThat(tracked).containsExactly(north(300));
+        assertThat(count("processed")).isEqualTo(1);
+        assertThat(count("coalesced")).isEqualTo(1);
+    }
+
+    private void submitAndRun(LocationUpdatePipeline pipeline, double metersNorth) {
+        pipeline.submit(SESSION, location(metersNorth));
+        runTasks();
+    }
+
+    private void runTasks() {
+        while (!tasks.isEmpty()) {
+            tasks.remove(0).run();
+        }
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("nanumi.location.frames").tag("result", result).counter().count();
+    }
+
+    private LocationDTO location(double metersNorth) {
+        return new LocationDTO(north(metersNorth), TARGET_LONGITUDE, TARGET_LATITUDE, TARGET_LONGITUDE, ROOM, OPPONENT);
+    }
+
+    private double north(double meters) {
+        return TARGET_LATITUDE + Math.toDegrees(meters / GeoUtils.EARTH_RADIUS_METERS);
+    }
+}
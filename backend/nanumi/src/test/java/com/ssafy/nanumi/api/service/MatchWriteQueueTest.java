@@ -0,0 +1,163 @@
+package com.ssafy.nanumi.api.service;
+
+import com.ssafy.nanumi.common.cache.ProductFeedCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.PendingEntry;
+import org.redisson.api.RStream;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.StreamMessageId;
+import org.redisson.api.stream.StreamAddArgs;
+import org.redisson.api.stream.StreamReadGroupArgs;
+import org.redisson.client.codec.Codec;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/* 저장할 수 없는 신청 (FK 위반 등) 을 insert mock 으로 재현 - POISON 상품이 들어간 insert 는 항상 실패한다 */
+class MatchWriteQueueTest {
+    private static final long POISON = 13L;
+
+    private final Map<StreamMessageId, Map<String, String>> messages = new LinkedHashMap<>();
+    private final List<StreamMessageId> acked = new ArrayList<>();
+    private final List<Long> inserted = new ArrayList<>();
+    private final List<Integer> insertSizes = new ArrayList<>();
+
+    private RStream<String, String> stream;
+    private RStream<String, String> deadLetters;
+    private MatchWriteQueue matchWriteQueue;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        stream = mock(RStream.class);
+        deadLetters = mock(RStream.class);
+        RedissonClient redissonClient = mock(RedissonClient.class);
+        when(redissonClient.<String, String>getStream(eq("nanum:matches"), any(Codec.class))).thenReturn(stream);
+        when(redissonClient.<String, String>getStream(eq("nanum:matches:dead"), any(Codec.class))).thenReturn(deadLetters);
+
+        when(stream.claim(anyString(), anyString(), anyLong(), any(TimeUnit.class), any(StreamMessageId[].class))).thenAnswer(invocation -> {
+            Map<StreamMessageId, Map<String, String>> claimed = new LinkedHashMap<>();
+            for (int i = 4; i < invocation.getArguments().length; i++) {
+                StreamMessageId id = invocation.getArgument(i);
+                claimed.put(id, messages.get(id));
+            }
+            return claimed;
+        });
+        when(stream.ack(anyString(), any(StreamMessageId[].class))).thenAnswer(invocation -> {
+            for (int i = 1; i < invocation.getArguments().length; i++) {
+                acked.add(invocation.getArgument(i));
+            }
+            return 0L;
+        });
+        when(stream.listPending(anyString(), any(StreamMessageId.class), any(StreamMessageId.class), anyInt())).thenReturn(Collections.emptyList());
+
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.update(startsWith("insert into matches"), any(Object[].class))).thenAnswer(invocation -> {
+            // (is_matching, product_id, receiver_id, create_date, update_date) 순서
+            List<Long> productIds = new ArrayList<>();
+            for (int i = 2; i < invocation.getArguments().length; i += 5) {
+                productIds.add(invocation.getArgument(i));
+            }
+            if (productIds.contains(POISON)) {
+                throw new DataIntegrityViolationException("fk_matches_product");
+            }
+            inserted.addAll(productIds);
+            insertSizes.add(productIds.size());
+            return productIds.size();
+        });
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        matchWriteQueue = new MatchWriteQueue(redissonClient, jdbcTemplate, transactionTemplate, mock(ProductFeedCache.class));
+        ReflectionTestUtils.setField(matchWriteQueue, "batchSize", 2);
+        ReflectionTestUtils.setField(matchWriteQueue, "maxDeliveries", 10);
+        matchWriteQueue.init();
+    }
+
+    @Test
+    void batch_가_실패하면_한_건씩_저장하고_실패한_신청만_pending_에_남긴다() {
+        StreamMessageId ok = message(1, 11L);
+        StreamMessageId poison = message(2, POISON);
+        when(stream.readGroup(anyString(), anyString(), any(StreamReadGroupArgs.class)))
+                .thenReturn(new LinkedHashMap<>(messages), Collections.emptyMap());
+
+        matchWriteQueue.flush();
+
+        assertThat(inserted).containsExactly(11L);
+        assertThat(insertSizes).containsExactly(1);
+        assertThat(acked).containsExactly(ok).doesNotContain(poison);
+        // 다음 batch 도 막히지 않고 읽는다
+        verify(stream, times(2)).readGroup(anyString(), anyString(), any(StreamReadGroupArgs.class));
+    }
+
+    @Test
+    void 전달_횟수를_넘긴_신청은_dead_letter_로_옮기고_ack_한다() {
+        StreamMessageId poison = message(2, POISON);
+        when(stream.listPending(anyString(), eq(StreamMessageId.MIN), any(StreamMessageId.class), anyInt()))
+                .thenReturn(Collections.singletonList(new PendingEntry(poison, "other", 60_000, 10)));
+
+        matchWriteQueue.flush();
+
+        assertThat(inserted).isEmpty();
+        assertThat(acked).containsExactly(poison);
+        verify(deadLetters).add(any(StreamAddArgs.class));
+    }
+
+    @Test
+    void pending_이_batch_보다_많으면_다음_페이지까지_회수한다() {
+        StreamMessageId first = message(1, 11L);
+        StreamMessageId second = message(2, 12L);
+        StreamMessageId third = message(3, 13_000L);
+        // 앞 페이지는 아직 처리 중인 메시지로 차 있다
+        when(stream.listPending(anyString(), eq(StreamMessageId.MIN), any(StreamMessageId.class), eq(2)))
+                .thenReturn(Arrays.asList(new PendingEntry(first, "other", 10, 1), new PendingEntry(second, "other", 10, 1)));
+        when(stream.listPending(anyString(), eq(new StreamMessageId(2, 1)), any(StreamMessageId.class), eq(2)))
+                .thenReturn(Collections.singletonList(new PendingEntry(third, "other", 60_000, 1)));
+
+        matchWriteQueue.flush();
+
+        assertThat(inserted).containsExactly(13_000L);
+        assertThat(acked).containsExactly(third);
+    }
+
+    @Test
+    void 회수가_실패해도_새_신청은_저장한다() {
+        StreamMessageId ok = message(1, 11L);
+        when(stream.listPending(anyString(), any(StreamMessageId.class), any(StreamMessageId.class), anyInt()))
+                .thenThrow(new IllegalStateException("redis timeout"));
+        when(stream.readGroup(anyString(), anyString(), any(StreamReadGroupArgs.class)))
+                .thenReturn(new LinkedHashMap<>(messages), Collections.emptyMap());
+
+        matchWriteQueue.flush();
+
+        assertThat(inserted).containsExactly(11L);
+        assertThat(acked).containsExactly(ok);
+    }
+
+    private StreamMessageId message(long sequence, long productId) {
+        StreamMessageId id = new StreamMessageId(sequence, 0);
+        Map<String, String> entry = new HashMap<>();
+        entry.put("productId", String.valueOf(productId));
+        entry.put("userId", "7");
+        entry.put("addressId", "1");
+        entry.put("close", "false");
+        entry.put("createDate", LocalDateTime.of(2023, 2, 1, 12, 0).toString());
+        messages.put(id, entry);
+        return id;
+    }
+}
@@ -0,0 +1,124 @@
+package com.ssafy.nanumi.api.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RMap;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/* 도착 기록 hash 는 메모리 map 으로 재현 (여러 서버가 같은 Redis 를 공유) */
+class MeetupGeofenceTest {
+    private static final double TARGET_LATITUDE = 37.5013;
+    private static final double TARGET_LONGITUDE = 127.0396;
+
+    private final Map<String, Set<String>> claimed = new HashMap<>();
+    private RedissonClient redissonClient;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redissonClient = mock(RedissonClient.class);
+        when(redissonClient.getMap(anyString(), any(Codec.class))).thenAnswer(invocation -> {
+            String key = invocation.getArgument(0);
+            RMap<String, String> hash = mock(RMap.class);
+            when(hash.fastPutIfAbsent(anyString(), anyString()))
+                    .thenAnswer(call -> claimed.computeIfAbsent(key, k -> new HashSet<>()).add(call.getArgument(0)));
+            when(hash.delete()).thenAnswer(call -> claimed.remove(key) != null);
+            return hash;
+        });
+    }
+
+    private MeetupGeofence geofence() {
+        // 100m 안으로 들어오고 130m 밖으로 나가야 이탈, 안쪽 위치 2번 + 2초 이상이면 도착
+        return new MeetupGeofence(redissonClient, 100, 130, 2, 2_000, 24, 30);
+    }
+
+    @Test
+    void 안쪽_위치가_이어져야_도착으로_확정한다() {
+        MeetupGeofence geofence = geofence();
+
+        assertThat(update(geofence, 1L, 7L, 90, 0)).isFalse();      // 진입
+        assertThat(geofence.isConfirming(1L, 7L)).isTrue();
+        assertThat(update(geofence, 1L, 7L, 85, 1_000)).isFalse();  // 머문 시간 부족
+        assertThat(update(geofence, 1L, 7L, 80, 2_500)).isTrue();
+        assertThat(geofence.isConfirming(1L, 7L)).isFalse();
+    }
+
+    @Test
+    void 한_번_튄_위치는_도착이_아니다() {
+        MeetupGeofence geofence = geofence();
+
+        assertThat(update(geofence, 1L, 7L, 95, 0)).isFalse();
+        assertThat(update(geofence, 1L, 7L, 400, 1_000)).isFalse(); // 이탈
+        assertThat(update(geofence, 1L, 7L, 400, 3_000)).isFalse();
+        assertThat(geofence.isConfirming(1L, 7L)).isFalse();
+    }
+
+    @Test
+    void 경계에서_흔들려도_도착_알림은_약속마다_한_번이다() {
+        MeetupGeofence geofence = geofence();
+        int arrivals = 0;
+        long now = 0;
+        // 100m 근처에서 흔들림 - 130m 안이라 이탈하지 않는다
+        double[] distances = {99, 110, 98, 120, 97, 125, 99, 101, 95};
+        for (double distance : distances) {
+            if (update(geofence, 1L, 7L, distance, now)) arrivals++;
+            now += 1_000;
+        }
+        // 나갔다가 다시 들어와도 다시 알리지 않는다
+        for (double distance : new double[]{200, 50, 50, 50}) {
+            if (update(geofence, 1L, 7L, distance, now)) arrivals++;
+            now += 1_000;
+        }
+        assertThat(arrivals).isEqualTo(1);
+
+        // 다른 서버 (새 상태) 에서도 같은 약속은 알리지 않는다
+        MeetupGeofence otherNode = geofence();
+        assertThat(update(otherNode, 1L, 7L, 50, 0)).isFalse();
+        assertThat(update(otherNode, 1L, 7L, 50, 3_000)).isFalse();
+        // 다른 참여자는 따로 판정
+        assertThat(update(otherNode, 1L, 8L, 50, 0)).isFalse();
+        assertThat(update(otherNode, 1L, 8L, 50, 3_000)).isTrue();
+    }
+
+    @Test
+    void 같은_채팅방이라도_약속_장소가_바뀌면_다시_알린다() {
+        MeetupGeofence geofence = geofence();
+        assertThat(update(geofence, 1L, 7L, 50, 0)).isFalse();
+        assertThat(update(geofence, 1L, 7L, 50, 3_000)).isTrue();
+
+        // 다음 약속 - 좌표가 다르다
+        double latitude = TARGET_LATITUDE + 0.01;
+        assertThat(geofence.isConfirming(1L, 7L)).isFalse();
+        assertThat(geofence.update(1L, 7L, latitude, TARGET_LONGITUDE, 50, 10_000)).isFalse();
+        assertThat(geofence.isConfirming(1L, 7L)).isTrue();
+        assertThat(geofence.update(1L, 7L, latitude, TARGET_LONGITUDE, 50, 13_000)).isTrue();
+    }
+
+    @Test
+    void 약속이_끝나면_도착_기록을_지운다() {
+        MeetupGeofence geofence = geofence();
+        update(geofence, 1L, 7L, 50, 0);
+        assertThat(update(geofence, 1L, 7L, 50, 3_000)).isTrue();
+        assertThat(claimed).containsKey("meetup:arrived:1");
+
+        geofence.remove(1L);
+
+        assertThat(claimed).doesNotContainKey("meetup:arrived:1");
+        assertThat(geofence.isConfirming(1L, 7L)).isFalse();
+    }
+
+    private boolean update(MeetupGeofence geofence, long chatRoomSeq, long userId, double targetDistance, long now) {
+        return geofence.update(chatRoomSeq, userId, TARGET_LATITUDE, TARGET_LONGITUDE, targetDistance, now);
+    }
+}
@@ -0,0 +1,94 @@
+package com.ssafy.nanumi.api.service;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.ssafy.nanumi.common.image.ImageVariant;
+import com.ssafy.nanumi.common.image.ImageVariantProcessor;
+import com.ssafy.nanumi.config.response.exception.CustomException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.InputStream;
+import java.net.URL;
+import java.util.EnumMap;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/* S3 지연을 흉내 낸 AmazonS3 mock 으로 병렬 업로드 시간/보상 삭제 확인 */
+class ProductImageUploaderTest {
+    private static final long S3_LATENCY_MS = 200;
+    private static final int IMAGE_COUNT = 4;
+
+    private AmazonS3 amazonS3;
+    private ThreadPoolTaskExecutor executor;
+    private ProductImageUploader uploader;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        amazonS3 = mock(AmazonS3.class);
+        when(amazonS3.putObject(anyString(), anyString(), any(InputStream.class), any(ObjectMetadata.class)))
+                .thenAnswer(invocation -> {
+                    Thread.sleep(S3_LATENCY_MS);
+                    return null;
+                });
+        when(amazonS3.getUrl(anyString(), anyString()))
+                .thenAnswer(invocation -> new URL("https://bucket.s3/" + invocation.getArgument(1)));
+
+        ImageVariantProcessor imageVariantProcessor = mock(ImageVariantProcessor.class);
+        when(imageVariantProcessor.process(any(byte[].class))).thenReturn(new EnumMap<>(ImageVariant.class));
+
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(IMAGE_COUNT);
+        executor.setMaxPoolSize(IMAGE_COUNT);
+        executor.initialize();
+
+        uploader = new ProductImageUploader(amazonS3, executor, imageVariantProcessor);
+        ReflectionTestUtils.setField(uploader, "bucket", "bucket");
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void 이미지는_병렬로_올라가고_요청_순서대로_반환된다() throws Exception {
+        long start = System.nanoTime();
+        List<ProductImageUploader.UploadedImage> uploaded = uploader.uploadAll(images());
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        // 순차 업로드면 IMAGE_COUNT * S3_LATENCY_MS 이상 걸린다
+        assertThat(elapsedMs).isLessThan(IMAGE_COUNT * S3_LATENCY_MS / 2);
+        assertThat(uploaded).hasSize(IMAGE_COUNT);
+        for (int i = 0; i < IMAGE_COUNT; i++) {
+            assertThat(uploaded.get(i).getUrl()).endsWith("-image" + i + ".jpg");
+        }
+    }
+
+    @Test
+    void 하나라도_실패하면_올라간_이미지는_지운다() {
+        doThrow(new IllegalStateException("s3 down"))
+                .when(amazonS3).putObject(anyString(), endsWith("-image2.jpg"), any(InputStream.class), any(ObjectMetadata.class));
+
+        assertThatThrownBy(() -> uploader.uploadAll(images()))
+                .isInstanceOf(CustomException.class);
+        verify(amazonS3, times(IMAGE_COUNT - 1)).deleteObject(eq("bucket"), anyString());
+    }
+
+    private MultipartFile[] images() {
+        MultipartFile[] images = new MultipartFile[IMAGE_COUNT];
+        for (int i = 0; i < IMAGE_COUNT; i++) {
+            images[i] = new MockMultipartFile("images", "image" + i + ".jpg", "image/jpeg", new byte[]{(byte) i});
+        }
+        return images;
+    }
+}
@@ -0,0 +1,144 @@
+package com.ssafy.nanumi.common.admission;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RScript;
+import org.redisson.api.RSet;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/* Redis 의 script 원자 실행을 메모리 set + 단일 잠금으로 재현 */
+class NanumAdmissionTest {
+    private static final int LIMIT = 3;
+
+    private final Map<String, Set<String>> sets = new HashMap<>();
+    private final AtomicInteger seedCalls = new AtomicInteger();
+    private NanumAdmission admission;
+
+    @BeforeEach
+    void setUp() {
+        RScript script = mock(RScript.class);
+        when(script.eval(anyString(), any(RScript.Mode.class), anyString(), any(RScript.ReturnType.class), anyList(), any()))
+                .thenAnswer(invocation -> {
+                    String lua = invocation.getArgument(2);
+                    String key = invocation.<List<Object>>getArgument(4).get(0).toString();
+                    Object[] args = Arrays.copyOfRange(invocation.getArguments(), 5, invocation.getArguments().length);
+                    synchronized (sets) {
+                        return lua.contains("SISMEMBER") ? admit(key, args) : seed(key, args);
+                    }
+                });
+
+        RedissonClient redissonClient = mock(RedissonClient.class);
+        when(redissonClient.getScript(any(Codec.class))).thenReturn(script);
+        when(redissonClient.getSet(anyString(), any(Codec.class))).thenAnswer(invocation -> {
+            String key = invocation.getArgument(0);
+            RSet<Object> set = mock(RSet.class);
+            when(set.remove(any())).thenAnswer(remove -> {
+                synchronized (sets) {
+                    return sets.getOrDefault(key, new HashSet<>()).remove(remove.<Object>getArgument(0));
+                }
+            });
+            return set;
+        });
+
+        admission = new NanumAdmission(redissonClient);
+        ReflectionTestUtils.setField(admission, "limit", LIMIT);
+        ReflectionTestUtils.setField(admission, "ttlSeconds", 60L);
+    }
+
+    @Test
+    void 정원까지만_통과하고_마지막_자리를_알려준다() {
+        assertThat(admission.admit(1L, 10L, List::of)).isEqualTo(AdmissionResult.ADMITTED);
+        assertThat(admission.admit(1L, 11L, List::of)).isEqualTo(AdmissionResult.ADMITTED);
+        assertThat(admission.admit(1L, 12L, List::of)).isEqualTo(AdmissionResult.ADMITTED_LAST);
+        assertThat(admission.admit(1L, 13L, List::of)).isEqualTo(AdmissionResult.FULL);
+    }
+
+    @Test
+    void 같은_사용자는_한_자리만_차지한다() {
+        assertThat(admission.admit(1L, 10L, List::of)).isEqualTo(AdmissionResult.ADMITTED);
+        assertThat(admission.admit(1L, 10L, List::of)).isEqualTo(AdmissionResult.DUPLICATE);
+        assertThat(admission.admit(1L, 11L, List::of)).isEqualTo(AdmissionResult.ADMITTED);
+        assertThat(admission.admit(1L, 12L, List::of)).isEqualTo(AdmissionResult.ADMITTED_LAST);
+    }
+
+    @Test
+    void set_이_없으면_DB_신청자로_한_번만_채운다() {
+        assertThat(admission.admit(1L, 12L, () -> {
+            seedCalls.incrementAndGet();
+            return List.of(10L, 11L);
+        })).isEqualTo(AdmissionResult.ADMITTED_LAST);
+        assertThat(admission.admit(1L, 10L, () -> List.of(99L))).isEqualTo(AdmissionResult.DUPLICATE);
+        assertThat(admission.admit(1L, 13L, () -> List.of(99L))).isEqualTo(AdmissionResult.FULL);
+        assertThat(seedCalls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void 자리를_반환하면_다음_사용자가_들어온다() {
+        admission.admit(1L, 10L, List::of);
+        admission.admit(1L, 11L, List::of);
+        admission.admit(1L, 12L, List::of);
+
+        admission.release(1L, 11L);
+
+        assertThat(admission.admit(1L, 13L, List::of)).isEqualTo(AdmissionResult.ADMITTED_LAST);
+    }
+
+    @Test
+    void 동시에_신청해도_정원만큼만_통과한다() throws Exception {
+        int users = 50;
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<AdmissionResult>> results = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            long userId = 100 + i;
+            results.add(executor.submit(() -> {
+                start.await();
+                return admission.admit(1L, userId, List::of);
+            }));
+        }
+        start.countDown();
+
+        Map<AdmissionResult, Integer> counts = new EnumMap<>(AdmissionResult.class);
+        for (Future<AdmissionResult> result : results) {
+            counts.merge(result.get(5, TimeUnit.SECONDS), 1, Integer::sum);
+        }
+        executor.shutdown();
+
+        assertThat(counts.getOrDefault(AdmissionResult.ADMITTED, 0)).isEqualTo(LIMIT - 1);
+        assertThat(counts.getOrDefault(AdmissionResult.ADMITTED_LAST, 0)).isEqualTo(1);
+        assertThat(counts.getOrDefault(AdmissionResult.FULL, 0)).isEqualTo(users - LIMIT);
+    }
+
+    /* ADMIT_SCRIPT 와 같은 판정 - 표시값 "0" 은 정원에서 뺀다 */
+    private long admit(String key, Object[] args) {
+        Set<String> set = sets.get(key);
+        if (set == null) return -1;
+        String userId = args[0].toString();
+        int limit = Integer.parseInt(args[1].toString());
+        if (set.contains(userId)) return 0;
+        if (set.size() - 1 >= limit) return -2;
+        set.add(userId);
+        return set.size() - 1 >= limit ? 2 : 1;
+    }
+
+    /* SEED_SCRIPT 와 같은 처리 - 이미 있으면 그대로 둔다 */
+    private long seed(String key, Object[] args) {
+        if (sets.containsKey(key)) return 0;
+        Set<String> set = new HashSet<>();
+        for (int i = 1; i < args.length; i++) {
+            set.add(args[i].toString());
+        }
+        sets.put(key, set);
+        return 1;
+    }
+}
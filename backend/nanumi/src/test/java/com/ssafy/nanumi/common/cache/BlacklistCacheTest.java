@@ -0,0 +1,75 @@
+package com.ssafy.nanumi.common.cache;
+
+import com.ssafy.nanumi.db.repository.BlacklistRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class BlacklistCacheTest {
+    private final List<Long> blockers = new ArrayList<>();
+    private BlacklistRepository blacklistRepository;
+    private BlacklistCache blacklistCache;
+
+    @BeforeEach
+    void setUp() {
+        blacklistRepository = mock(BlacklistRepository.class);
+        when(blacklistRepository.findBlockerId(anyLong())).thenAnswer(invocation -> new ArrayList<>(blockers));
+        when(blacklistRepository.findTargetId(anyLong())).thenReturn(Collections.emptyList());
+
+        RedissonClient redissonClient = mock(RedissonClient.class);
+        when(redissonClient.getTopic(anyString(), any(Codec.class))).thenReturn(mock(RTopic.class));
+
+        blacklistCache = new BlacklistCache(blacklistRepository, redissonClient, 10, 1_000);
+        blacklistCache.subscribe();
+    }
+
+    @Test
+    void 조회는_한_번만_DB_에서_읽는다() {
+        blockers.add(3L);
+
+        assertThat(blacklistCache.isBlocked(1L, 3L)).isTrue();
+        assertThat(blacklistCache.isBlocked(1L, 3L)).isTrue();
+        verify(blacklistRepository, times(1)).findBlockerId(1L);
+    }
+
+    @Test
+    void 읽는_도중_무효화되면_읽은_값을_캐시하지_않는다() {
+        // 차단 커밋 전에 읽기 시작 -> 읽는 도중 커밋 후 무효화 -> 옛 값으로 put 시도
+        AtomicBoolean first = new AtomicBoolean(true);
+        when(blacklistRepository.findBlockerId(1L)).thenAnswer(invocation -> {
+            List<Long> snapshot = new ArrayList<>(blockers);
+            if (first.getAndSet(false)) {
+                blockers.add(3L);
+                blacklistCache.evictAfterCommit(1L, 3L);
+            }
+            return snapshot;
+        });
+
+        assertThat(blacklistCache.isBlocked(1L, 3L)).isFalse(); // 읽기 시작 시점 값
+        assertThat(blacklistCache.isBlocked(1L, 3L)).isTrue();  // 옛 값이 남지 않고 다시 읽는다
+        verify(blacklistRepository, times(2)).findBlockerId(1L);
+    }
+
+    @Test
+    void 무효화하면_다시_읽는다() {
+        assertThat(blacklistCache.isBlocked(1L, 3L)).isFalse();
+
+        blockers.add(3L);
+        blacklistCache.evictAfterCommit(1L, 3L);
+
+        assertThat(blacklistCache.isBlocked(1L, 3L)).isTrue();
+    }
+}
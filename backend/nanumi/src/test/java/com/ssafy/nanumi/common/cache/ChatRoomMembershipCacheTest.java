@@ -0,0 +1,83 @@
+package com.ssafy.nanumi.common.cache;
+
+import com.ssafy.nanumi.db.entity.ChatRoomEntity;
+import com.ssafy.nanumi.db.repository.ChatRoomRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class ChatRoomMembershipCacheTest {
+    private static final long ROOM = 7L;
+
+    private ChatRoomEntity chatRoom;
+    private ChatRoomRepository chatRoomRepository;
+    private ChatRoomMembershipCache membershipCache;
+
+    @BeforeEach
+    void setUp() {
+        chatRoom = ChatRoomEntity.builder().chatroomSeq(ROOM).userList(new long[]{1L, 2L}).isActivate(true).build();
+        chatRoomRepository = mock(ChatRoomRepository.class);
+        when(chatRoomRepository.findChatRoomEntityByChatroomSeq(ROOM)).thenAnswer(invocation -> copy(chatRoom));
+
+        RedissonClient redissonClient = mock(RedissonClient.class);
+        when(redissonClient.getTopic(anyString(), any(Codec.class))).thenReturn(mock(RTopic.class));
+
+        membershipCache = new ChatRoomMembershipCache(chatRoomRepository, redissonClient, 10, 1_000);
+        membershipCache.subscribe();
+    }
+
+    @Test
+    void 조회는_한_번만_DB_에서_읽는다() {
+        assertThat(membershipCache.get(ROOM).opponentOf(1L)).isEqualTo(2L);
+        assertThat(membershipCache.get(ROOM).opponentOf(2L)).isEqualTo(1L);
+        verify(chatRoomRepository, times(1)).findChatRoomEntityByChatroomSeq(ROOM);
+    }
+
+    @Test
+    void 읽는_도중_무효화되면_읽은_값을_캐시하지_않는다() {
+        // 신고 전에 읽기 시작 -> 읽는 도중 비활성화 후 무효화 -> 옛 값으로 put 시도
+        AtomicBoolean first = new AtomicBoolean(true);
+        when(chatRoomRepository.findChatRoomEntityByChatroomSeq(ROOM)).thenAnswer(invocation -> {
+            ChatRoomEntity snapshot = copy(chatRoom);
+            if (first.getAndSet(false)) {
+                chatRoom.setActivate(false);
+                membershipCache.evict(ROOM);
+            }
+            return snapshot;
+        });
+
+        assertThat(membershipCache.get(ROOM).isActive()).isTrue();  // 읽기 시작 시점 값
+        assertThat(membershipCache.get(ROOM).isActive()).isFalse(); // 옛 값이 남지 않고 다시 읽는다
+        verify(chatRoomRepository, times(2)).findChatRoomEntityByChatroomSeq(ROOM);
+    }
+
+    @Test
+    void 무효화하면_다시_읽는다() {
+        assertThat(membershipCache.get(ROOM).isActive()).isTrue();
+
+        chatRoom.setActivate(false);
+        membershipCache.evict(ROOM);
+
+        assertThat(membershipCache.get(ROOM).isActive()).isFalse();
+    }
+
+    @Test
+    void 없는_방은_캐시하지_않는다() {
+        assertThat(membershipCache.get(99L)).isNull();
+        assertThat(membershipCache.get(99L)).isNull();
+        verify(chatRoomRepository, times(2)).findChatRoomEntityByChatroomSeq(99L);
+    }
+
+    private ChatRoomEntity copy(ChatRoomEntity room) {
+        return ChatRoomEntity.builder().chatroomSeq(room.getChatroomSeq()).userList(room.getUserList()).isActivate(room.isActivate()).build();
+    }
+}
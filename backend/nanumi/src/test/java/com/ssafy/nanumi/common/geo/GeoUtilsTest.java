@@ -0,0 +1,54 @@
+package com.ssafy.nanumi.common.geo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/* 빠른 근사 거리와 haversine 의 차이 - 임의의 위치/방향에서 거리별 최대 오차 */
+class GeoUtilsTest {
+
+    private static double maxError(double meters, double maxLatitude) {
+        Random random = new Random(meters == 0 ? 1 : (long) meters);
+        double max = 0;
+        for (int i = 0; i < 100_000; i++) {
+            double lat = (random.nextDouble() * 2 - 1) * maxLatitude;
+            double lon = (random.nextDouble() * 2 - 1) * 180;
+            double bearing = random.nextDouble() * 2 * Math.PI;
+            double lat2 = lat + Math.toDegrees(meters * Math.cos(bearing) / GeoUtils.EARTH_RADIUS_METERS);
+            double lon2 = lon + Math.toDegrees(meters * Math.sin(bearing) / GeoUtils.EARTH_RADIUS_METERS) / Math.cos(Math.toRadians(lat));
+
+            double exact = GeoUtils.haversine(lat, lon, lat2, lon2);
+            max = Math.max(max, Math.abs(GeoUtils.distance(lat, lon, lat2, lon2) - exact));
+        }
+        return max;
+    }
+
+    @Test
+    void 약속_장소_판정_거리에서_오차는_1m_미만이다() {
+        assertThat(maxError(100, 80)).isLessThan(1.0);
+        assertThat(maxError(130, 80)).isLessThan(1.0);
+    }
+
+    @Test
+    void 근사_구간_전체에서_오차는_1cm_미만이다() {
+        for (double meters : new double[]{10, 500, 1_000, 5_000, 10_000}) {
+            assertThat(maxError(meters, 80)).as("%.0fm", meters).isLessThan(0.01);
+        }
+    }
+
+    @Test
+    void 먼_거리는_haversine_과_같다() {
+        // 서울 - 부산
+        double seoulBusan = GeoUtils.distance(37.5665, 126.9780, 35.1796, 129.0756);
+        assertThat(seoulBusan).isEqualTo(GeoUtils.haversine(37.5665, 126.9780, 35.1796, 129.0756));
+        assertThat(seoulBusan).isCloseTo(325_000, within(5_000.0));
+    }
+
+    @Test
+    void 날짜변경선을_넘는_거리도_계산한다() {
+        assertThat(GeoUtils.distance(0, 179.9995, 0, -179.9995)).isCloseTo(111.2, within(0.5));
+    }
+}
@@ -0,0 +1,59 @@
+package com.ssafy.nanumi.common.geo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocationGridTest {
+    // 역삼역 근처
+    private static final double LAT = 37.5007;
+    private static final double LON = 127.0365;
+
+    @Test
+    void 반경_안의_위치만_가까운_순으로_반환한다() {
+        LocationGrid grid = new LocationGrid();
+        grid.update(new TrackedLocation("a", 1L, 10L, LAT + 0.0003, LON, 0L));      // 약 33m
+        grid.update(new TrackedLocation("b", 2L, 10L, LAT, LON + 0.0010, 0L));      // 약 88m
+        grid.update(new TrackedLocation("c", 3L, 11L, LAT + 0.0020, LON, 0L));      // 약 222m
+
+        List<NearbyLocation> nearby = grid.findWithin(LAT, LON, 100);
+
+        assertThat(nearby).extracting(NearbyLocation::getUserId).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void 셀을_옮기면_이전_셀에서는_조회되지_않는다() {
+        LocationGrid grid = new LocationGrid();
+        grid.update(new TrackedLocation("a", 1L, 10L, LAT, LON, 0L));
+        grid.update(new TrackedLocation("a", 1L, 10L, LAT + 0.01, LON, 1L)); // 약 1.1km 이동
+
+        assertThat(grid.findWithin(LAT, LON, 100)).isEmpty();
+        assertThat(grid.findWithin(LAT + 0.01, LON, 100)).hasSize(1);
+
+        grid.remove("a");
+        assertThat(grid.findWithin(LAT + 0.01, LON, 100)).isEmpty();
+        assertThat(grid.size()).isZero();
+    }
+
+    @Test
+    void 셀_조회_결과는_전체_탐색과_같다() {
+        LocationGrid grid = new LocationGrid();
+        Random random = new Random(42);
+        for (int i = 0; i < 5_000; i++) {
+            grid.update(new TrackedLocation("s" + i, i, 0L, LAT + (random.nextDouble() - 0.5) * 0.05, LON + (random.nextDouble() - 0.5) * 0.05, 0L));
+        }
+
+        for (double radius : new double[]{50, 100, 300, 1_000}) {
+            List<Long> expected = grid.all().stream()
+                    .filter(location -> GeoUtils.haversine(LAT, LON, location.getLatitude(), location.getLongitude()) <= radius)
+                    .map(TrackedLocation::getUserId).sorted().collect(Collectors.toList());
+            List<Long> actual = grid.findWithin(LAT, LON, radius).stream()
+                    .map(NearbyLocation::getUserId).sorted().collect(Collectors.toList());
+            assertThat(actual).isEqualTo(expected);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.ssafy.nanumi.common.image;
+
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImageVariantProcessorTest {
+    private final ImageVariantProcessor processor = new ImageVariantProcessor();
+
+    @Test
+    void 변환본은_비율을_유지하며_최대_너비로_줄인다() throws IOException {
+        Map<ImageVariant, EncodedImage> variants = processor.process(jpeg(2400, 1800, 1));
+
+        assertThat(size(variants.get(ImageVariant.DETAIL))).isEqualTo(new Dimension(1080, 810));
+        assertThat(size(variants.get(ImageVariant.THUMBNAIL))).isEqualTo(new Dimension(320, 240));
+        assertThat(variants.get(ImageVariant.DETAIL).getContentType()).isEqualTo("image/jpeg");
+    }
+
+    @Test
+    void 작은_이미지는_키우지_않는다() throws IOException {
+        Map<ImageVariant, EncodedImage> variants = processor.process(jpeg(200, 100, 1));
+
+        assertThat(size(variants.get(ImageVariant.DETAIL))).isEqualTo(new Dimension(200, 100));
+        assertThat(size(variants.get(ImageVariant.THUMBNAIL))).isEqualTo(new Dimension(200, 100));
+    }
+
+    @Test
+    void 큰_이미지는_목표_너비의_2배까지_subsampling_해서_읽는다() throws IOException {
+        // 4400 / (1080 * 2) = 2
+        BufferedImage decoded = processor.decode(jpeg(4400, 2200, 1), ImageVariant.DETAIL.getMaxWidth());
+
+        assertThat(decoded.getWidth()).isEqualTo(2200);
+        assertThat(decoded.getHeight()).isEqualTo(1100);
+    }
+
+    @Test
+    void EXIF_Orientation_6_은_시계_방향으로_돌린_뒤_줄인다() throws IOException {
+        // 센서 방향 가로 사진 (왼쪽 빨강, 오른쪽 파랑) + Orientation 6 -> 세로 사진 (위 빨강, 아래 파랑)
+        byte[] rotated = jpeg(2400, 1200, 6);
+
+        Map<ImageVariant, EncodedImage> variants = processor.process(rotated);
+
+        BufferedImage detail = read(variants.get(ImageVariant.DETAIL));
+        assertThat(detail.getWidth()).isEqualTo(1080);
+        assertThat(detail.getHeight()).isEqualTo(2160);
+        assertThat(isRed(detail.getRGB(540, 400))).isTrue();
+        assertThat(isRed(detail.getRGB(540, 1800))).isFalse();
+    }
+
+    @Test
+    void EXIF_Orientation_8_은_반시계_방향으로_돌린다() throws IOException {
+        BufferedImage decoded = processor.decode(jpeg(400, 200, 8), ImageVariant.DETAIL.getMaxWidth());
+
+        assertThat(decoded.getWidth()).isEqualTo(200);
+        assertThat(decoded.getHeight()).isEqualTo(400);
+        // 왼쪽 (빨강) 이 아래로 간다
+        assertThat(isRed(decoded.getRGB(100, 350))).isTrue();
+        assertThat(isRed(decoded.getRGB(100, 50))).isFalse();
+    }
+
+    @Test
+    void Orientation_태그를_읽는다() throws IOException {
+        assertThat(ExifOrientation.read(jpeg(10, 10, 3))).isEqualTo(3);
+        assertThat(ExifOrientation.read(jpeg(10, 10, 1))).isEqualTo(ExifOrientation.NORMAL);
+        assertThat(ExifOrientation.read(new byte[]{1, 2, 3})).isEqualTo(ExifOrientation.NORMAL);
+    }
+
+    /* 왼쪽 절반 빨강, 오른쪽 절반 파랑인 JPEG - orientation 이 1 이 아니면 EXIF APP1 세그먼트를 붙인다 */
+    private byte[] jpeg(int width, int height, int orientation) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.RED);
+        graphics.fillRect(0, 0, width / 2, height);
+        graphics.setColor(Color.BLUE);
+        graphics.fillRect(width / 2, 0, width - width / 2, height);
+        graphics.dispose();
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpg", baos);
+        byte[] jpeg = baos.toByteArray();
+        if (orientation == 1) {
+            return jpeg;
+        }
+
+        byte[] app1 = {
+                (byte) 0xFF, (byte) 0xE1, 0, 34,
+                'E', 'x', 'i', 'f', 0, 0,
+                'M', 'M', 0, 0x2A, 0, 0, 0, 8,           // TIFF 헤더 (big endian), IFD0 offset 8
+                0, 1,                                     // 항목 1개
+                0x01, 0x12, 0, 3, 0, 0, 0, 1, 0, (byte) orientation, 0, 0, // Orientation, SHORT, 1개
+                0, 0, 0, 0                                // 다음 IFD 없음
+        };
+        ByteArrayOutputStream withExif = new ByteArrayOutputStream();
+        withExif.write(jpeg, 0, 2); // SOI
+        withExif.write(app1);
+        withExif.write(jpeg, 2, jpeg.length - 2);
+        return withExif.toByteArray();
+    }
+
+    private BufferedImage read(EncodedImage encoded) throws IOException {
+        return ImageIO.read(new ByteArrayInputStream(encoded.getBytes()));
+    }
+
+    private Dimension size(EncodedImage encoded) throws IOException {
+        BufferedImage image = read(encoded);
+        return new Dimension(image.getWidth(), image.getHeight());
+    }
+
+    private boolean isRed(int rgb) {
+        Color color = new Color(rgb);
+        return color.getRed() > 200 && color.getBlue() < 60;
+    }
+}
@@ -0,0 +1,157 @@
+package com.ssafy.nanumi.common.lock;
+
+import com.ssafy.nanumi.api.service.ChatRoomService;
+import com.ssafy.nanumi.common.CreateChatRoomDTO;
+import com.ssafy.nanumi.config.response.exception.CustomException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RAtomicLong;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class DistributeLockAopTest {
+    private final Map<String, RLock> locks = new HashMap<>();
+    private final Map<String, Long> fences = new HashMap<>();
+    private RedissonClient redissonClient;
+    private SimpleMeterRegistry meterRegistry;
+    private LockedService service;
+
+    @BeforeEach
+    void setUp() {
+        redissonClient = mock(RedissonClient.class);
+        when(redissonClient.getLock(anyString())).thenAnswer(invocation -> locks.computeIfAbsent(invocation.getArgument(0), key -> heldLock()));
+        when(redissonClient.getFairLock(anyString())).thenAnswer(invocation -> locks.computeIfAbsent(invocation.getArgument(0), key -> heldLock()));
+        when(redissonClient.getAtomicLong(anyString())).thenAnswer(invocation -> {
+            String key = invocation.getArgument(0);
+            RAtomicLong counter = mock(RAtomicLong.class);
+            when(counter.incrementAndGet()).thenAnswer(increment -> fences.merge(key, 1L, Long::sum));
+            return counter;
+        });
+        meterRegistry = new SimpleMeterRegistry();
+
+        LockedService target = new LockedService();
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new DistributeLockAop(redissonClient, new AopForTransaction(), meterRegistry));
+        service = factory.getProxy();
+        target.self = service;
+    }
+
+    @Test
+    void 인자로_만든_key_로_잠그고_끝나면_푼다() throws Exception {
+        assertThat(service.reentrant(7L)).isEqualTo("done");
+
+        RLock lock = locks.get("RLOCK_item:7");
+        verify(lock).tryLock(0, 3000, TimeUnit.MILLISECONDS);
+        verify(lock).unlock();
+    }
+
+    @Test
+    void 대기_시간_안에_잡지_못하면_CustomException() throws Exception {
+        RLock busy = mock(RLock.class);
+        when(busy.tryLock(anyLong(), anyLong(), any(TimeUnit.class))).thenReturn(false);
+        locks.put("RLOCK_item:7", busy);
+
+        assertThatThrownBy(() -> service.reentrant(7L)).isInstanceOf(CustomException.class);
+        verify(busy, never()).unlock();
+        assertThat(meterRegistry.get("nanumi.lock.timeout").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void FAIR_락은_즉시_시도_없이_대기열에서_기다린다() throws Exception {
+        assertThat(service.fair(7L)).isEqualTo("done");
+
+        RLock lock = locks.get("RLOCK_fair:7");
+        verify(lock).tryLock(5000, 3000, TimeUnit.MILLISECONDS);
+        verify(lock, never()).tryLock(eq(0L), anyLong(), any(TimeUnit.class));
+        assertThat(meterRegistry.find("nanumi.lock.contention").counter()).isNull();
+    }
+
+    @Test
+    void FAIR_락은_오래_기다려서_잡으면_경합으로_기록한다() throws Exception {
+        RLock slow = heldLock();
+        when(slow.tryLock(anyLong(), anyLong(), any(TimeUnit.class))).thenAnswer(invocation -> {
+            Thread.sleep(20);
+            return true;
+        });
+        locks.put("RLOCK_fair:7", slow);
+
+        service.fair(7L);
+
+        assertThat(meterRegistry.get("nanumi.lock.contention").tag("mode", "FAIR").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void FENCED_락은_token_을_발급하고_중첩_호출_뒤_바깥_token_을_복원한다() {
+        fences.put("RLOCK_inner:1:fence", 10L);
+
+        // 바깥 token, 안쪽 token, 안쪽 호출이 끝난 뒤 다시 바깥 token
+        assertThat(service.fencedOuter(1L)).containsExactly(1L, 11L, 1L);
+        assertThat(service.fencedOuter(1L)).containsExactly(2L, 12L, 2L);
+        assertThat(FencingToken.current()).isNull();
+    }
+
+    @Test
+    void 채팅방_생성은_상품과_상대방_단위로_잠근다() throws Exception {
+        DistributeLock lock = ChatRoomService.class.getMethod("CreateChatRoom", CreateChatRoomDTO.class)
+                .getAnnotation(DistributeLock.class);
+        CreateChatRoomDTO dto = new CreateChatRoomDTO();
+        dto.setProductId(7L);
+        dto.setOpponentId(3L);
+
+        assertThat(CustomSpringELParser.getDynamicValue(new String[]{"DTO"}, new Object[]{dto}, lock.key()))
+                .isEqualTo("chatroom:7:3");
+    }
+
+    private RLock heldLock() {
+        RLock lock = mock(RLock.class);
+        try {
+            when(lock.tryLock(anyLong(), anyLong(), any(TimeUnit.class))).thenReturn(true);
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+        when(lock.isHeldByCurrentThread()).thenReturn(true);
+        return lock;
+    }
+
+    static class LockedService {
+        LockedService self; // 중첩 호출도 proxy 를 거치도록
+
+        @DistributeLock(key = "'item:' + #id")
+        public String reentrant(Long id) {
+            return "done";
+        }
+
+        @DistributeLock(key = "'fair:' + #id", mode = LockMode.FAIR)
+        public String fair(Long id) {
+            return "done";
+        }
+
+        @DistributeLock(key = "'outer:' + #id", mode = LockMode.FENCED)
+        public List<Long> fencedOuter(Long id) {
+            List<Long> seen = new ArrayList<>();
+            seen.add(FencingToken.current());
+            seen.add(self.fencedInner(id));
+            seen.add(FencingToken.current());
+            return seen;
+        }
+
+        @DistributeLock(key = "'inner:' + #id", mode = LockMode.FENCED)
+        public Long fencedInner(Long id) {
+            return FencingToken.current();
+        }
+    }
+}
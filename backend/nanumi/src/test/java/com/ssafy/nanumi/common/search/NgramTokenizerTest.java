@@ -0,0 +1,34 @@
+package com.ssafy.nanumi.common.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NgramTokenizerTest {
+
+    @Test
+    void 단어를_두_글자씩_잘라_토큰을_만든다() {
+        assertThat(NgramTokenizer.tokenize("아이폰 케이스"))
+                .containsExactly("아이", "이폰", "케이", "이스");
+    }
+
+    @Test
+    void 기호로_단어를_나누고_소문자로_만든다() {
+        assertThat(NgramTokenizer.tokenize("iPad/미니"))
+                .containsExactly("ip", "pa", "ad", "미니");
+    }
+
+    @Test
+    void 한_글자_단어는_토큰으로_만들지_않는다() {
+        assertThat(NgramTokenizer.tokenize("가방 a 새"))
+                .containsExactly("가방");
+    }
+
+    @Test
+    void 한_글자_단어뿐이면_색인으로_찾을_수_없다() {
+        assertThat(NgramTokenizer.isIndexable("가 방")).isFalse();
+        assertThat(NgramTokenizer.isIndexable("  ")).isFalse();
+        assertThat(NgramTokenizer.isIndexable(null)).isFalse();
+        assertThat(NgramTokenizer.isIndexable("가방")).isTrue();
+    }
+}
@@ -0,0 +1,120 @@
+package com.ssafy.nanumi.config.stomp;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.listener.MessageListener;
+import org.redisson.client.codec.Codec;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/* 두 서버가 같은 Redis topic 을 공유하는 상황을 메모리 topic 으로 재현 */
+class RedisBrokerRelayTest {
+
+    private final List<MessageListener<RelayedMessage>> listeners = new ArrayList<>();
+    private final List<Message<?>> nodeAReceived = new ArrayList<>();
+    private final List<Message<?>> nodeBReceived = new ArrayList<>();
+
+    private RTopic topic;
+    private SimpleMeterRegistry meterRegistry;
+    private RedisBrokerRelay nodeA;
+    private RedisBrokerRelay nodeB;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        topic = mock(RTopic.class);
+        when(topic.addListener(eq(RelayedMessage.class), any(MessageListener.class))).thenAnswer(invocation -> {
+            listeners.add(invocation.getArgument(1));
+            return listeners.size();
+        });
+        when(topic.publishAsync(any())).thenAnswer(invocation -> {
+            RelayedMessage message = invocation.getArgument(0);
+            for (MessageListener<RelayedMessage> listener : new ArrayList<>(listeners)) {
+                listener.onMessage(RedisBrokerRelay.TOPIC, message);
+            }
+            return null;
+        });
+
+        RedissonClient redissonClient = mock(RedissonClient.class);
+        when(redissonClient.getTopic(eq(RedisBrokerRelay.TOPIC), any(Codec.class))).thenReturn(topic);
+
+        meterRegistry = new SimpleMeterRegistry();
+        nodeA = new RedisBrokerRelay(redissonClient, meterRegistry, recordingChannel(nodeAReceived));
+        nodeB = new RedisBrokerRelay(redissonClient, meterRegistry, recordingChannel(nodeBReceived));
+        nodeA.subscribe();
+        nodeB.subscribe();
+    }
+
+    @Test
+    void 다른_서버의_구독자에게_전달된다() {
+        byte[] payload = "{\"message\":\"hi\"}".getBytes(StandardCharsets.UTF_8);
+
+        nodeA.preSend(brokerMessage("/sub/chat/room/1", payload), null);
+
+        assertThat(nodeAReceived).isEmpty(); // 자기 메시지는 로컬 broker 가 이미 처리
+        assertThat(nodeBReceived).hasSize(1);
+        Message<?> delivered = nodeBReceived.get(0);
+        assertThat(SimpMessageHeaderAccessor.getDestination(delivered.getHeaders())).isEqualTo("/sub/chat/room/1");
+        assertThat((byte[]) delivered.getPayload()).isEqualTo(payload);
+        assertThat(delivered.getHeaders().get(MessageHeaders.CONTENT_TYPE).toString())
+                .isEqualTo(MimeTypeUtils.APPLICATION_JSON.toString());
+    }
+
+    @Test
+    void 전달받은_메시지는_다시_발행하지_않는다() {
+        nodeA.preSend(brokerMessage("/sub/user/7", new byte[]{1}), null);
+
+        // node B 의 broker channel 로 들어온 메시지가 node B interceptor 를 다시 통과
+        nodeB.preSend(nodeBReceived.get(0), null);
+
+        verify(topic, times(1)).publishAsync(any());
+    }
+
+    @Test
+    void sub_이외의_destination_은_중계하지_않는다() {
+        nodeA.preSend(brokerMessage("/pub/chat/message", new byte[]{1}), null);
+
+        verify(topic, never()).publishAsync(any());
+    }
+
+    @Test
+    void destination_prefix_별로_처리량을_기록한다() {
+        nodeA.preSend(brokerMessage("/sub/chat/room/1", new byte[10]), null);
+        nodeA.preSend(brokerMessage("/sub/chat/room/2", new byte[10]), null);
+
+        assertThat(meterRegistry.get("nanumi.stomp.relay.messages")
+                .tags("direction", "out", "destination", "/sub/chat").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("nanumi.stomp.relay.messages")
+                .tags("direction", "in", "destination", "/sub/chat").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("nanumi.stomp.relay.bytes")
+                .tags("direction", "out", "destination", "/sub/chat").summary().totalAmount()).isEqualTo(20);
+    }
+
+    private Message<byte[]> brokerMessage(String destination, byte[] payload) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(destination);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        return MessageBuilder.createMessage(payload, accessor.getMessageHeaders());
+    }
+
+    private MessageChannel recordingChannel(List<Message<?>> received) {
+        return (message, timeout) -> received.add(message);
+    }
+}
@@ -0,0 +1,107 @@
+package com.ssafy.nanumi.db.repository;
+
+import com.ssafy.nanumi.api.response.ProductAllDTO;
+import com.ssafy.nanumi.common.cache.ProductFeedEntry;
+import com.ssafy.nanumi.db.entity.*;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ProductRepositoryTest {
+
+    private static final int PAGE_SIZE = 6;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        em.createNativeQuery("insert into address (id, si, gugun, dong) values (1, '서울시', '강남구', '역삼동')").executeUpdate();
+        em.createNativeQuery("insert into categories (id, name) values (1, '의류')").executeUpdate();
+
+        owner = User.builder()
+                .email("owner@nanumi.com")
+                .nickname("owner")
+                .password("password")
+                .profileUrl("https://profile/owner.png")
+                .address(em.getReference(Address.class, 1L))
+                .build();
+        em.persist(owner);
+
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            Product product = Product.builder()
+                    .name("상품" + i)
+                    .content("내용" + i)
+                    .user(owner)
+                    .address(owner.getAddress())
+                    .category(em.getReference(Category.class, 1L))
+                    .build();
+            em.persist(product);
+            for (int j = 0; j < 3; j++) {
+                em.persist(ProductImage.builder()
+                        .imageUrl("https://image/" + i + "/" + j + ".png")
+                        .product(product)
+                        .build());
+            }
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void 피드_한_페이지는_한_번의_조회_쿼리로_가져온다() {
+        List<Long> ids = productRepository.findFeedEntries(1L, LocalDateTime.now().minusDays(1)).stream()
+                .map(ProductFeedEntry::getProductId)
+                .collect(Collectors.toList());
+        Statistics statistics = statistics();
+
+        List<ProductAllDTO> products = productRepository.findAllDtoByIdIn(ids);
+
+        assertThat(products).hasSize(PAGE_SIZE);
+        assertThat(products)
+                .allSatisfy(dto -> {
+                    assertThat(dto.getUserProfileUrl()).isEqualTo("https://profile/owner.png");
+                    assertThat(dto.getProductImageUrl()).endsWith("/0.png");
+                });
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void 사용자별_상품_목록도_페이지당_쿼리_수가_고정된다() {
+        Statistics statistics = statistics();
+
+        Page<ProductAllDTO> page = userRepository.getAllMatchProduct(owner.getId(),
+                PageRequest.of(0, PAGE_SIZE, Sort.by("createDate").descending()));
+
+        assertThat(page.getContent()).hasSize(PAGE_SIZE);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+}
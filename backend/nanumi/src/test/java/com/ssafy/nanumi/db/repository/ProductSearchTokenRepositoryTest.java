@@ -0,0 +1,99 @@
+package com.ssafy.nanumi.db.repository;
+
+import com.ssafy.nanumi.common.search.NgramTokenizer;
+import com.ssafy.nanumi.db.entity.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class ProductSearchTokenRepositoryTest {
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private ProductSearchTokenRepository productSearchTokenRepository;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        em.createNativeQuery("insert into address (id, si, gugun, dong) values (1, '서울시', '강남구', '역삼동')").executeUpdate();
+        em.createNativeQuery("insert into categories (id, name) values (1, '의류')").executeUpdate();
+
+        owner = User.builder()
+                .email("owner@nanumi.com")
+                .nickname("owner")
+                .password("password")
+                .profileUrl("https://profile/owner.png")
+                .address(em.getReference(Address.class, 1L))
+                .build();
+        em.persist(owner);
+    }
+
+    @Test
+    void 모든_토큰을_가진_상품만_가중치_순으로_찾는다() {
+        Product inName = persist("아이폰 케이스", "새 상품");
+        Product inContent = persist("케이스", "아이폰 12 용");
+        persist("아이패드", "케이스 포함");
+        em.flush();
+        em.clear();
+
+        Set<String> tokens = NgramTokenizer.tokenize("아이폰 케이스");
+        Page<Long> ids = productSearchTokenRepository.searchProductIds(1L, List.of(0L), tokens, tokens.size(),
+                LocalDateTime.now().minusDays(1), PageRequest.of(0, 10));
+
+        // 제목에 모두 있는 상품이 먼저, 세 번째 상품은 "이폰" 이 없어 제외
+        assertThat(ids.getContent()).containsExactly(inName.getId(), inContent.getId());
+        assertThat(ids.getTotalElements()).isEqualTo(2);
+    }
+
+    @Test
+    void 차단한_사용자의_상품은_찾지_않는다() {
+        persist("아이폰 케이스", "새 상품");
+        em.flush();
+        em.clear();
+
+        Set<String> tokens = NgramTokenizer.tokenize("아이폰");
+        Page<Long> ids = productSearchTokenRepository.searchProductIds(1L, List.of(0L, owner.getId()), tokens, tokens.size(),
+                LocalDateTime.now().minusDays(1), PageRequest.of(0, 10));
+
+        assertThat(ids.getContent()).isEmpty();
+    }
+
+    /* ProductSearchIndexService.index 와 같은 가중치로 토큰 저장 */
+    private Product persist(String name, String content) {
+        Product product = Product.builder()
+                .name(name)
+                .content(content)
+                .user(owner)
+                .address(owner.getAddress())
+                .category(em.getReference(Category.class, 1L))
+                .build();
+        em.persist(product);
+        em.flush();
+
+        Map<String, Integer> weights = new HashMap<>();
+        NgramTokenizer.tokenize(name).forEach(token -> weights.merge(token, 2, Integer::sum));
+        NgramTokenizer.tokenize(content).forEach(token -> weights.merge(token, 1, Integer::sum));
+        weights.forEach((token, weight) -> em.persist(ProductSearchToken.builder()
+                .productId(product.getId())
+                .token(token)
+                .weight(weight)
+                .build()));
+        return product;
+    }
+}
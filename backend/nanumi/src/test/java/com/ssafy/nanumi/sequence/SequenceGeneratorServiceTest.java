@@ -0,0 +1,87 @@
+package com.ssafy.nanumi.sequence;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/* 카운터 문서의 $inc 를 메모리 카운터로 재현 - 여러 서버가 같은 카운터를 공유 */
+class SequenceGeneratorServiceTest {
+
+    private final AtomicLong counter = new AtomicLong();
+    private MongoOperations mongoOperations;
+
+    @BeforeEach
+    void setUp() {
+        mongoOperations = mock(MongoOperations.class);
+        when(mongoOperations.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(AutoIncrementSequence.class)))
+                .thenAnswer(invocation -> {
+                    Update update = invocation.getArgument(1);
+                    Number inc = (Number) ((Map<?, ?>) update.getUpdateObject().get("$inc")).get("seq");
+                    AutoIncrementSequence sequence = new AutoIncrementSequence();
+                    sequence.setSeq(counter.addAndGet(inc.longValue()));
+                    return sequence;
+                });
+    }
+
+    @Test
+    void 구간을_다_쓸_때만_카운터를_증가시킨다() {
+        SequenceGeneratorService service = new SequenceGeneratorService(mongoOperations, 100);
+
+        for (long expected = 1; expected <= 250; expected++) {
+            assertThat(service.generateSequence("chatroom_sequence")).isEqualTo(expected);
+        }
+        verify(mongoOperations, times(3)).findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(AutoIncrementSequence.class));
+        assertThat(counter.get()).isEqualTo(300);
+    }
+
+    @Test
+    void 기존_카운터_값_다음부터_이어서_발급한다() {
+        counter.set(41);
+        SequenceGeneratorService service = new SequenceGeneratorService(mongoOperations, 10);
+
+        assertThat(service.generateSequence("chatroom_sequence")).isEqualTo(42);
+    }
+
+    @Test
+    void 여러_서버가_동시에_발급해도_겹치지_않고_서버별로_증가한다() throws Exception {
+        List<SequenceGeneratorService> nodes = Arrays.asList(
+                new SequenceGeneratorService(mongoOperations, 7),
+                new SequenceGeneratorService(mongoOperations, 7),
+                new SequenceGeneratorService(mongoOperations, 7));
+        ExecutorService executor = Executors.newFixedThreadPool(6);
+        List<Future<List<Long>>> futures = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            SequenceGeneratorService node = nodes.get(i % nodes.size());
+            futures.add(executor.submit(() -> {
+                List<Long> ids = new ArrayList<>();
+                for (int n = 0; n < 500; n++) {
+                    ids.add(node.generateSequence("chatroom_sequence"));
+                }
+                return ids;
+            }));
+        }
+
+        Set<Long> all = new HashSet<>();
+        for (Future<List<Long>> future : futures) {
+            List<Long> ids = future.get(10, TimeUnit.SECONDS);
+            for (int n = 1; n < ids.size(); n++) {
+                assertThat(ids.get(n)).isGreaterThan(ids.get(n - 1));
+            }
+            all.addAll(ids);
+        }
+        executor.shutdown();
+        assertThat(all).hasSize(3000);
+    }
+}
@@ -0,0 +1,28 @@
+-- matches (product_id, receiver_id) unique 제약 추가
+-- 나눔 신청 쓰기 지연 큐는 같은 신청이 다시 전달돼도 이 제약으로 한 번만 저장한다.
+-- 제약을 걸기 전에 기존 중복 신청을 정리한다 - 가장 작은 id 만 남기고, 리뷰/매칭 상태는 남는 신청으로 옮긴다.
+
+-- 중복 그룹 중 하나라도 매칭됐으면 남는 신청을 매칭 상태로
+UPDATE matches k
+  JOIN (SELECT product_id, receiver_id, MIN(id) AS keep_id, MAX(is_matching) AS is_matching
+          FROM matches
+         GROUP BY product_id, receiver_id
+        HAVING COUNT(*) > 1) d ON k.id = d.keep_id
+   SET k.is_matching = d.is_matching;
+
+-- 지울 신청에 달린 리뷰를 남는 신청으로
+UPDATE reviews r
+  JOIN matches m ON r.match_id = m.id
+  JOIN (SELECT product_id, receiver_id, MIN(id) AS keep_id
+          FROM matches
+         GROUP BY product_id, receiver_id
+        HAVING COUNT(*) > 1) d ON m.product_id = d.product_id AND m.receiver_id = d.receiver_id
+   SET r.match_id = d.keep_id
+ WHERE m.id <> d.keep_id;
+
+-- 중복 신청 삭제
+DELETE m
+  FROM matches m
+  JOIN matches k ON m.product_id = k.product_id AND m.receiver_id = k.receiver_id AND m.id > k.id;
+
+ALTER TABLE matches ADD CONSTRAINT uk_matches_product_receiver UNIQUE (product_id, receiver_id);
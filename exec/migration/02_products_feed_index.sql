@@ -0,0 +1,4 @@
+-- products 피드 인덱스 (address_id, create_date, id)
+-- 피드 캐시 적재 (findFeedEntries / findCategoryFeedEntries) 가 지역 + 구간 시작 이후 조건으로 최신순 조회할 때 filesort 없이 읽는다.
+-- 인덱스를 잠시 뺐던 스키마로 만든 DB 에도 적용할 수 있도록 이미 있으면 건너뛴다 (MariaDB).
+CREATE INDEX IF NOT EXISTS `idx_products_feed` ON `products` (`address_id`, `create_date`, `id`);
@@ -84,6 +84,7 @@ CREATE TABLE IF NOT EXISTS `matches` (
   `product_id` bigint(20) DEFAULT NULL,
   `receiver_id` bigint(20) DEFAULT NULL,
   PRIMARY KEY (`id`),
+  UNIQUE KEY `uk_matches_product_receiver` (`product_id`,`receiver_id`),
   KEY `FKtbdwkl1vi1wi1ykr6jhnv3eti` (`product_id`),
   KEY `FKcyx1k02ylc53eba8u0g4n908s` (`receiver_id`),
   CONSTRAINT `FKcyx1k02ylc53eba8u0g4n908s` FOREIGN KEY (`receiver_id`) REFERENCES `users` (`id`),
@@ -109,6 +110,7 @@ CREATE TABLE IF NOT EXISTS `products` (
   KEY `FKfk5aqfv8mvcjodux5ivnnio8f` (`address_id`),
   KEY `FKog2rp4qthbtt2lfyhfo32lsw9` (`category_id`),
   KEY `FKdb050tk37qryv15hd932626th` (`user_id`),
+  KEY `idx_products_feed` (`address_id`,`create_date`,`id`),
   CONSTRAINT `FKdb050tk37qryv15hd932626th` FOREIGN KEY (`user_id`) REFERENCES `users` (`id`),
   CONSTRAINT `FKfk5aqfv8mvcjodux5ivnnio8f` FOREIGN KEY (`address_id`) REFERENCES `address` (`id`),
   CONSTRAINT `FKog2rp4qthbtt2lfyhfo32lsw9` FOREIGN KEY (`category_id`) REFERENCES `categories` (`id`)
@@ -120,6 +122,8 @@ CREATE TABLE IF NOT EXISTS `products` (
 CREATE TABLE IF NOT EXISTS `product_images` (
   `id` bigint(20) NOT NULL AUTO_INCREMENT,
   `image_url` varchar(255) NOT NULL,
+  `detail_url` varchar(255) DEFAULT NULL,
+  `thumbnail_url` varchar(255) DEFAULT NULL,
   `product_id` bigint(20) DEFAULT NULL,
   PRIMARY KEY (`id`),
   KEY `FKqnq71xsohugpqwf3c9gxmsuy` (`product_id`),
@@ -128,6 +132,27 @@ CREATE TABLE IF NOT EXISTS `product_images` (
 
 -- 내보낼 데이터가 선택되어 있지 않습니다.
 
+-- 테이블 nanumi.backfill_state 구조 내보내기
+CREATE TABLE IF NOT EXISTS `backfill_state` (
+  `name` varchar(50) NOT NULL,
+  `last_id` bigint(20) NOT NULL,
+  `completed` tinyint NOT NULL,
+  PRIMARY KEY (`name`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci;
+
+-- 내보낼 데이터가 선택되어 있지 않습니다.
+
+-- 테이블 nanumi.product_search_tokens 구조 내보내기
+CREATE TABLE IF NOT EXISTS `product_search_tokens` (
+  `product_id` bigint(20) NOT NULL,
+  `token` varchar(2) NOT NULL,
+  `weight` int(11) NOT NULL,
+  PRIMARY KEY (`product_id`,`token`),
+  KEY `idx_search_token` (`token`,`product_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci;
+
+-- 내보낼 데이터가 선택되어 있지 않습니다.
+
 -- 테이블 nanumi.reports 구조 내보내기
 CREATE TABLE IF NOT EXISTS `reports` (
   `id` bigint(20) NOT NULL AUTO_INCREMENT,